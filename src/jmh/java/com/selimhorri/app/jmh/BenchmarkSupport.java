@@ -0,0 +1,49 @@
+package com.selimhorri.app.jmh;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.LoggerFactory;
+
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.OrderDto;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Fixtures shared by the benchmarks.
+ */
+final class BenchmarkSupport {
+
+    static final LocalDateTime ORDER_DATE = LocalDateTime.of(2021, 11, 20, 14, 30, 15, 123_456_000);
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Without a Spring context logback logs everything at DEBUG, which would be measured too.
+     */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    static Payment payment(int paymentId, int orderId) {
+        return Payment.builder()
+                .paymentId(paymentId)
+                .orderId(orderId)
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.IN_PROGRESS)
+                .build();
+    }
+
+    static OrderDto order(int orderId, String orderStatus) {
+        return OrderDto.builder()
+                .orderId(orderId)
+                .orderDate(ORDER_DATE)
+                .orderDesc("Order " + orderId)
+                .orderFee(42.5)
+                .orderStatus(orderStatus)
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.selimhorri.app.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.PaymentMappingHelper;
+
+/**
+ * Serializes the response bodies with an ObjectMapper configured like the one Spring Boot builds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private ObjectWriter objectWriter;
+    private OrderDto orderDto;
+    private PaymentDto paymentDto;
+
+    @Setup
+    public void setUp() {
+        final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        objectWriter = objectMapper.writer();
+        orderDto = BenchmarkSupport.order(1, "IN_PAYMENT");
+        paymentDto = PaymentMappingHelper.map(BenchmarkSupport.payment(1, 1));
+        paymentDto.setOrderDto(orderDto);
+    }
+
+    @Benchmark
+    public String orderDto() throws JsonProcessingException {
+        return objectWriter.writeValueAsString(orderDto);
+    }
+
+    @Benchmark
+    public String paymentDto() throws JsonProcessingException {
+        return objectWriter.writeValueAsString(paymentDto);
+    }
+
+    @Benchmark
+    public byte[] collectionResponse(final Collection collection) throws JsonProcessingException {
+        return objectWriter.writeValueAsBytes(collection.response);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Collection {
+
+        @Param({ "10", "1000" })
+        private int size;
+
+        private DtoCollectionResponse<PaymentDto> response;
+
+        @Setup
+        public void setUp() {
+            final List<PaymentDto> paymentDtos = IntStream.rangeClosed(1, size)
+                    .mapToObj(i -> {
+                        final PaymentDto p = PaymentMappingHelper.map(BenchmarkSupport.payment(i, i));
+                        p.setOrderDto(BenchmarkSupport.order(i, "IN_PAYMENT"));
+                        return p;
+                    })
+                    .collect(Collectors.toList());
+            response = new DtoCollectionResponse<>(paymentDtos);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.selimhorri.app.jmh;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.OrderDto;
+
+/**
+ * Parses the ORDER-SERVICE orderDate format, on its own and as part of reading an OrderDto answer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class OrderDateParsingBenchmark {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(AppConstant.LOCAL_DATE_TIME_FORMAT);
+
+    private String orderDate;
+    private String orderJson;
+    private ObjectReader orderReader;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        orderDate = FORMATTER.format(BenchmarkSupport.ORDER_DATE);
+        final var objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        orderJson = objectMapper.writeValueAsString(BenchmarkSupport.order(1, "IN_PAYMENT"));
+        orderReader = objectMapper.readerFor(OrderDto.class);
+    }
+
+    @Benchmark
+    public LocalDateTime patternPerCall() {
+        return LocalDateTime.parse(orderDate, DateTimeFormatter.ofPattern(AppConstant.LOCAL_DATE_TIME_FORMAT));
+    }
+
+    @Benchmark
+    public LocalDateTime sharedFormatter() {
+        return LocalDateTime.parse(orderDate, FORMATTER);
+    }
+
+    @Benchmark
+    public OrderDto orderDtoFromJson() throws JsonProcessingException {
+        return orderReader.readValue(orderJson);
+    }
+}
@@ -0,0 +1,85 @@
+package com.selimhorri.app.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.selimhorri.app.cache.OrderCache;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.config.cache.OrderCacheProperties;
+import com.selimhorri.app.config.enrichment.EnrichmentProperties;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.helper.PaymentMappingHelper;
+import com.selimhorri.app.service.OrderEnrichmentService;
+import com.selimhorri.app.service.impl.OrderEnrichmentServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * The findAll pipeline after the candidate query: distinct order ids, order lookups and the IN_PAYMENT filter.
+ * Orders come from a stub answering right away, so only the pipeline itself is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PaymentEnrichmentBenchmark {
+
+    @Param({ "1000" })
+    private int payments;
+
+    @Param({ "4" })
+    private int paymentsPerOrder;
+
+    @Param({ "true", "false" })
+    private boolean cacheEnabled;
+
+    private OrderEnrichmentService orderEnrichmentService;
+    private List<PaymentDto> paymentDtos;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        final OrderCacheProperties orderCacheProperties = new OrderCacheProperties();
+        orderCacheProperties.setEnabled(cacheEnabled);
+        final OrderCache orderCache = new OrderCache(new StubOrderClient(), orderCacheProperties,
+                new SimpleMeterRegistry());
+        orderEnrichmentService = new OrderEnrichmentServiceImpl(orderCache, new EnrichmentProperties());
+        // Enrichment replaces each order with one of the same id, so the list can be enriched again and again
+        paymentDtos = IntStream.rangeClosed(1, payments)
+                .mapToObj(i -> PaymentMappingHelper.map(BenchmarkSupport.payment(i, 1 + i / paymentsPerOrder)))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<PaymentDto> enrichInPayment() {
+        return orderEnrichmentService.enrichInPayment(paymentDtos);
+    }
+
+    /**
+     * Every other order is IN_PAYMENT.
+     */
+    private static final class StubOrderClient implements OrderClient {
+
+        @Override
+        public Mono<OrderDto> findById(final Integer orderId) {
+            return Mono.just(BenchmarkSupport.order(orderId, orderId % 2 == 0 ? "IN_PAYMENT" : "ORDERED"));
+        }
+
+        @Override
+        public Mono<Void> updateStatus(final Integer orderId) {
+            return Mono.empty();
+        }
+    }
+}
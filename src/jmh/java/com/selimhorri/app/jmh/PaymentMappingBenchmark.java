@@ -0,0 +1,40 @@
+package com.selimhorri.app.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.helper.PaymentMappingHelper;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class PaymentMappingBenchmark {
+
+    private Payment payment;
+    private PaymentDto paymentDto;
+
+    @Setup
+    public void setUp() {
+        payment = BenchmarkSupport.payment(1, 1);
+        paymentDto = PaymentMappingHelper.map(payment);
+    }
+
+    @Benchmark
+    public PaymentDto entityToDto() {
+        return PaymentMappingHelper.map(payment);
+    }
+
+    @Benchmark
+    public Payment dtoToEntity() {
+        return PaymentMappingHelper.map(paymentDto);
+    }
+}
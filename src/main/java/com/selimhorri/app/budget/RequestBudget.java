@@ -0,0 +1,77 @@
+package com.selimhorri.app.budget;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * ORDER-SERVICE calls and SQL statements made on behalf of one inbound request. The budget of the request being
+ * served is bound to its thread, reactive order lookups carry it in their subscriber context as they may complete
+ * on other threads. Tests can open one around the code under test and assert the counts.
+ */
+public final class RequestBudget implements AutoCloseable {
+	
+	private static final ThreadLocal<RequestBudget> CURRENT = new ThreadLocal<>();
+	
+	private final RequestBudget previous;
+	private final AtomicInteger orderCalls = new AtomicInteger();
+	private final AtomicInteger sqlStatements = new AtomicInteger();
+	
+	private RequestBudget(final RequestBudget previous) {
+		this.previous = previous;
+	}
+	
+	/**
+	 * Binds a new budget to the current thread until closed.
+	 */
+	public static RequestBudget open() {
+		final RequestBudget requestBudget = new RequestBudget(CURRENT.get());
+		CURRENT.set(requestBudget);
+		return requestBudget;
+	}
+	
+	public static Optional<RequestBudget> current() {
+		return Optional.ofNullable(CURRENT.get());
+	}
+	
+	public static void countSqlStatement() {
+		final RequestBudget requestBudget = CURRENT.get();
+		if (requestBudget != null) {
+			requestBudget.sqlStatements.incrementAndGet();
+		}
+	}
+	
+	public static void countOrderCall(final ContextView context) {
+		context.<RequestBudget> getOrEmpty(RequestBudget.class)
+				.ifPresent(requestBudget -> requestBudget.orderCalls.incrementAndGet());
+	}
+	
+	/**
+	 * For {@code contextWrite}: adds the budget bound to the subscribing thread, if any, to the subscriber context.
+	 */
+	public static Context propagate(final Context context) {
+		final RequestBudget requestBudget = CURRENT.get();
+		return requestBudget == null ? context : context.put(RequestBudget.class, requestBudget);
+	}
+	
+	public int getOrderCalls() {
+		return this.orderCalls.get();
+	}
+	
+	public int getSqlStatements() {
+		return this.sqlStatements.get();
+	}
+	
+	@Override
+	public void close() {
+		if (this.previous == null) {
+			CURRENT.remove();
+		}
+		else {
+			CURRENT.set(this.previous);
+		}
+	}
+	
+}
@@ -0,0 +1,71 @@
+package com.selimhorri.app.budget;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.selimhorri.app.config.budget.RequestBudgetProperties;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opens a {@link RequestBudget} per request, records its counts by endpoint and warns when they exceed the budget.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RequestBudgetFilter extends OncePerRequestFilter {
+	
+	public static final String ORDER_CALLS_METER = "http.server.requests.order.calls";
+	public static final String SQL_STATEMENTS_METER = "http.server.requests.sql.statements";
+	
+	private final MeterRegistry meterRegistry;
+	private final RequestBudgetProperties requestBudgetProperties;
+	
+	@Override
+	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+			final FilterChain filterChain) throws ServletException, IOException {
+		try (RequestBudget requestBudget = RequestBudget.open()) {
+			try {
+				filterChain.doFilter(request, response);
+			}
+			finally {
+				this.record(request, requestBudget);
+			}
+		}
+	}
+	
+	private void record(final HttpServletRequest request, final RequestBudget requestBudget) {
+		final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		final String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+		this.summary(ORDER_CALLS_METER, "ORDER-SERVICE calls made while serving a request", request, uri)
+				.record(requestBudget.getOrderCalls());
+		this.summary(SQL_STATEMENTS_METER, "SQL statements run while serving a request", request, uri)
+				.record(requestBudget.getSqlStatements());
+		if (requestBudget.getOrderCalls() > this.requestBudgetProperties.getMaxOrderCalls()
+				|| requestBudget.getSqlStatements() > this.requestBudgetProperties.getMaxSqlStatements()) {
+			log.warn("*** {} {} over budget: {} ORDER-SERVICE calls (max {}), {} SQL statements (max {}) *",
+					request.getMethod(), uri,
+					requestBudget.getOrderCalls(), this.requestBudgetProperties.getMaxOrderCalls(),
+					requestBudget.getSqlStatements(), this.requestBudgetProperties.getMaxSqlStatements());
+		}
+	}
+	
+	private DistributionSummary summary(final String name, final String description,
+			final HttpServletRequest request, final String uri) {
+		return DistributionSummary.builder(name)
+				.description(description)
+				.tag("method", request.getMethod())
+				.tag("uri", uri)
+				.register(this.meterRegistry);
+	}
+	
+}
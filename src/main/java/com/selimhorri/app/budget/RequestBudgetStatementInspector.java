@@ -0,0 +1,18 @@
+package com.selimhorri.app.budget;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares against the request budget, leaving them unchanged.
+ */
+public class RequestBudgetStatementInspector implements StatementInspector {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Override
+	public String inspect(final String sql) {
+		RequestBudget.countSqlStatement();
+		return sql;
+	}
+	
+}
@@ -0,0 +1,277 @@
+package com.selimhorri.app.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.selimhorri.app.budget.RequestBudget;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.config.cache.OrderCacheProperties;
+import com.selimhorri.app.dto.OrderDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-through cache of ORDER-SERVICE orders keyed by orderId, 404 answers are cached as well.
+ * The last order read for each id is also kept for {@link OrderCacheProperties#getStaleTtl()}, the *OrStale lookups
+ * fall back to it when ORDER-SERVICE cannot be reached.
+ */
+@Component
+@Slf4j
+public class OrderCache {
+
+	public static final String CACHE_NAME = "orders";
+	public static final String LOOKUPS_METER = "order.lookups";
+
+	private final OrderClient orderClient;
+	private final OrderCacheProperties orderCacheProperties;
+	private final AsyncCache<Integer, CachedOrder> cache;
+	private final Cache<Integer, OrderDto> lastKnown;
+	private final SingleFlight<Integer, CachedOrder> singleFlight;
+	private final Counter calledLookups;
+	private final Counter coalescedLookups;
+	private final Counter staleLookups;
+
+	public OrderCache(final OrderClient orderClient, final OrderCacheProperties orderCacheProperties,
+			final MeterRegistry meterRegistry) {
+		this.orderClient = orderClient;
+		this.orderCacheProperties = orderCacheProperties;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(orderCacheProperties.getMaximumSize())
+				.expireAfter(new CachedOrderExpiry())
+				.recordStats()
+				.buildAsync();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+		this.lastKnown = Caffeine.newBuilder()
+				.maximumSize(orderCacheProperties.getMaximumSize())
+				.expireAfterWrite(orderCacheProperties.getStaleTtl())
+				.build();
+		this.calledLookups = Counter.builder(LOOKUPS_METER)
+				.description("Order lookups sent to ORDER-SERVICE")
+				.tag("result", "called")
+				.register(meterRegistry);
+		this.coalescedLookups = Counter.builder(LOOKUPS_METER)
+				.description("Order lookups that joined an identical call already in flight")
+				.tag("result", "coalesced")
+				.register(meterRegistry);
+		this.staleLookups = Counter.builder(LOOKUPS_METER)
+				.description("Order lookups that failed and were served the last known order")
+				.tag("result", "stale")
+				.register(meterRegistry);
+		this.singleFlight = new SingleFlight<>(this.coalescedLookups::increment);
+		Gauge.builder("order.lookups.in.flight", this.singleFlight, SingleFlight::inFlight)
+				.description("Distinct orders being looked up while the cache is disabled")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Concurrent lookups of the same order share one in-flight call and its result or error, whether the cache
+	 * is enabled or not. Failed calls are not cached. Calls actually sent count against the request budget.
+	 *
+	 * @return the order, or an empty Mono when ORDER-SERVICE does not know it
+	 */
+	public Mono<OrderDto> find(final Integer orderId) {
+		if (!this.orderCacheProperties.isEnabled()) {
+			return Mono.deferContextual(context -> this.singleFlight.execute(orderId, key -> {
+						RequestBudget.countOrderCall(context);
+						return this.load(key);
+					}))
+					.flatMap(cachedOrder -> Mono.justOrEmpty(cachedOrder.getOrderDto()))
+					.contextWrite(RequestBudget::propagate);
+		}
+		return Mono.deferContextual(context -> {
+			// The cache itself coalesces misses, a pending entry this call did not create is a joined lookup
+			final boolean[] loading = { false };
+			final CompletableFuture<CachedOrder> entry = this.cache.get(orderId, (key, executor) -> {
+				loading[0] = true;
+				return this.load(key).toFuture();
+			});
+			if (loading[0]) {
+				RequestBudget.countOrderCall(context);
+			}
+			else if (!entry.isDone()) {
+				this.coalescedLookups.increment();
+			}
+			// Subscribers get a dependent stage, so one of them cancelling never cancels the shared entry
+			return Mono.fromFuture(entry.thenApply(CachedOrder::getOrderDto));
+		}).contextWrite(RequestBudget::propagate);
+	}
+
+	/**
+	 * Variant of {@link #find(Integer)} for display paths: when the lookup fails, e.g. the ORDER-SERVICE circuit
+	 * breaker is open, the last known order is served instead of the error. Never use it to validate writes.
+	 */
+	public Mono<OrderDto> findOrStale(final Integer orderId) {
+		return this.find(orderId).onErrorResume(e -> {
+			final OrderDto stale = this.lastKnown.getIfPresent(orderId);
+			if (stale == null) {
+				return Mono.error(e);
+			}
+			this.staleLookups.increment();
+			log.warn("Serving last known order ID {} after lookup failure: {}", orderId, e.getMessage());
+			return Mono.just(stale);
+		});
+	}
+
+	/**
+	 * Looks the orders up with at most concurrency calls in flight.
+	 *
+	 * @return an empty Optional for orders ORDER-SERVICE does not know, no entry for orders whose lookup failed
+	 */
+	public Mono<Map<Integer, Optional<OrderDto>>> findAll(final Collection<Integer> orderIds, final int concurrency) {
+		return this.findAll(orderIds, concurrency, this::find);
+	}
+
+	/**
+	 * Always asks ORDER-SERVICE and caches the answer, for writes that must not act on an order already moved on
+	 * by another instance. The call is not shared with lookups in flight and counts against the request budget.
+	 *
+	 * @return the order, or an empty Mono when ORDER-SERVICE does not know it
+	 */
+	public Mono<OrderDto> findFresh(final Integer orderId) {
+		return Mono.deferContextual(context -> {
+					RequestBudget.countOrderCall(context);
+					return this.load(orderId);
+				})
+				.doOnNext(cachedOrder -> {
+					if (this.orderCacheProperties.isEnabled()) {
+						this.cache.put(orderId, CompletableFuture.completedFuture(cachedOrder));
+					}
+				})
+				.flatMap(cachedOrder -> Mono.justOrEmpty(cachedOrder.getOrderDto()))
+				.contextWrite(RequestBudget::propagate);
+	}
+
+	/**
+	 * Variant of {@link #findAll(Collection, int)} asking ORDER-SERVICE for every order, see
+	 * {@link #findFresh(Integer)}.
+	 */
+	public Mono<Map<Integer, Optional<OrderDto>>> findAllFresh(final Collection<Integer> orderIds,
+			final int concurrency) {
+		return this.findAll(orderIds, concurrency, this::findFresh);
+	}
+
+	/**
+	 * Variant of {@link #findAll(Collection, int)} serving the last known order of failed lookups, see
+	 * {@link #findOrStale(Integer)}.
+	 */
+	public Mono<Map<Integer, Optional<OrderDto>>> findAllOrStale(final Collection<Integer> orderIds,
+			final int concurrency) {
+		return this.findAll(orderIds, concurrency, this::findOrStale);
+	}
+
+	private Mono<Map<Integer, Optional<OrderDto>>> findAll(final Collection<Integer> orderIds, final int concurrency,
+			final Function<Integer, Mono<OrderDto>> lookup) {
+		return Flux.fromIterable(orderIds)
+				.flatMap(orderId -> lookup.apply(orderId)
+						.map(Optional::of)
+						.defaultIfEmpty(Optional.empty())
+						.map(orderDto -> Map.entry(orderId, orderDto))
+						.onErrorResume(e -> {
+							log.error("Error fetching order ID {}: {}", orderId, e.getMessage());
+							return Mono.empty();
+						}), concurrency)
+				.collectMap(Map.Entry::getKey, Map.Entry::getValue)
+				// Lookups started once the first ones complete run on other threads, the budget rides along
+				.contextWrite(RequestBudget::propagate);
+	}
+
+	/**
+	 * Blocking variant of {@link #find(Integer)}.
+	 */
+	public Optional<OrderDto> get(final Integer orderId) {
+		return this.find(orderId).blockOptional();
+	}
+
+	/**
+	 * Blocking variant of {@link #findFresh(Integer)}.
+	 */
+	public Optional<OrderDto> getFresh(final Integer orderId) {
+		return this.findFresh(orderId).blockOptional();
+	}
+
+	/**
+	 * Blocking variant of {@link #findOrStale(Integer)}.
+	 */
+	public Optional<OrderDto> getOrStale(final Integer orderId) {
+		return this.findOrStale(orderId).blockOptional();
+	}
+
+	public void invalidate(final Integer orderId) {
+		log.debug("Invalidating cached order ID {}", orderId);
+		this.cache.synchronous().invalidate(orderId);
+		this.lastKnown.invalidate(orderId);
+	}
+
+	private Mono<CachedOrder> load(final Integer orderId) {
+		this.calledLookups.increment();
+		return this.orderClient.findById(orderId)
+				.doOnNext(orderDto -> this.lastKnown.put(orderId, orderDto))
+				.map(CachedOrder::new)
+				.switchIfEmpty(Mono.fromCallable(() -> {
+					this.lastKnown.invalidate(orderId);
+					return new CachedOrder(null);
+				}));
+	}
+
+	private Duration ttlOf(final CachedOrder cachedOrder) {
+		if (cachedOrder.getOrderDto() == null) {
+			return this.orderCacheProperties.getNotFoundTtl();
+		}
+		final String orderStatus = cachedOrder.getOrderDto().getOrderStatus();
+		return this.orderCacheProperties.getTtl()
+				.getOrDefault(orderStatus == null ? "" : orderStatus.toUpperCase(),
+						this.orderCacheProperties.getDefaultTtl());
+	}
+
+	private static final class CachedOrder {
+
+		private final OrderDto orderDto;
+
+		private CachedOrder(final OrderDto orderDto) {
+			this.orderDto = orderDto;
+		}
+
+		private OrderDto getOrderDto() {
+			return this.orderDto;
+		}
+
+	}
+
+	private final class CachedOrderExpiry implements Expiry<Integer, CachedOrder> {
+
+		@Override
+		public long expireAfterCreate(final Integer orderId, final CachedOrder cachedOrder, final long currentTime) {
+			return ttlOf(cachedOrder).toNanos();
+		}
+
+		@Override
+		public long expireAfterUpdate(final Integer orderId, final CachedOrder cachedOrder, final long currentTime,
+				final long currentDuration) {
+			return ttlOf(cachedOrder).toNanos();
+		}
+
+		@Override
+		public long expireAfterRead(final Integer orderId, final CachedOrder cachedOrder, final long currentTime,
+				final long currentDuration) {
+			return currentDuration;
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.selimhorri.app.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces concurrent calls for the same key into one, every caller gets the result or the error of that call.
+ * The key is released as soon as the call completes, so nothing is cached.
+ */
+public class SingleFlight<K, V> {
+
+	private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final Runnable onCoalesced;
+
+	/**
+	 * @param onCoalesced run each time a caller joins a call already in flight instead of starting one
+	 */
+	public SingleFlight(final Runnable onCoalesced) {
+		this.onCoalesced = onCoalesced;
+	}
+
+	public Mono<V> execute(final K key, final Function<K, Mono<V>> call) {
+		return Mono.defer(() -> {
+			final CompletableFuture<V> created = new CompletableFuture<>();
+			final CompletableFuture<V> shared = this.inFlight.putIfAbsent(key, created);
+			if (shared != null) {
+				this.onCoalesced.run();
+				return Mono.fromFuture(shared.thenApply(Function.identity()));
+			}
+			call.apply(key).toFuture().whenComplete((value, error) -> {
+				// Released before completing, a caller arriving afterwards starts a fresh call
+				this.inFlight.remove(key, created);
+				if (error != null) {
+					created.completeExceptionally(error);
+				}
+				else {
+					created.complete(value);
+				}
+			});
+			// Callers get a dependent stage, so one of them cancelling never cancels the shared call
+			return Mono.fromFuture(created.thenApply(Function.identity()));
+		});
+	}
+
+	public int inFlight() {
+		return this.inFlight.size();
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.selimhorri.app.client;
+
+import java.net.URI;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.OrderDto;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * ORDER-SERVICE client that can also address a given instance, for callers that spread lookups over the instances
+ * themselves instead of leaving it to the load balancer.
+ */
+public interface InstanceOrderClient extends OrderClient {
+	
+	/**
+	 * @return the order as the given instance knows it, or an empty Mono when it does not know it
+	 */
+	Mono<OrderDto> findById(final ServiceInstance instance, final Integer orderId);
+	
+	static URI lookupUri(final ServiceInstance instance, final Integer orderId) {
+		return LoadBalancerUriTools.reconstructURI(instance,
+				URI.create(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/" + orderId));
+	}
+	
+}
@@ -0,0 +1,35 @@
+package com.selimhorri.app.client;
+
+import java.util.Collection;
+
+import com.selimhorri.app.dto.OrderDto;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * ORDER-SERVICE client, failures are signalled as {@link org.springframework.web.client.RestClientException}.
+ */
+public interface OrderClient {
+	
+	/**
+	 * Qualifier of the transport implementation, the primary OrderClient decorates it.
+	 */
+	String TRANSPORT = "orderClientTransport";
+	
+	/**
+	 * @return the order, or an empty Mono when ORDER-SERVICE does not know it
+	 */
+	Mono<OrderDto> findById(final Integer orderId);
+	
+	Mono<Void> updateStatus(final Integer orderId);
+	
+	/**
+	 * Fetches the orders with at most {@code concurrency} calls in flight, unknown orders are skipped.
+	 */
+	default Flux<OrderDto> findAllById(final Collection<Integer> orderIds, final int concurrency) {
+		return Flux.fromIterable(orderIds)
+				.flatMap(this::findById, concurrency);
+	}
+	
+}
@@ -0,0 +1,172 @@
+package com.selimhorri.app.client.impl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import com.selimhorri.app.client.InstanceOrderClient;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.config.client.OrderClientProperties;
+import com.selimhorri.app.dto.OrderDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hedges order lookups: when the first call has not answered within a percentile of recent lookup latencies,
+ * a second call is sent and whichever answers first wins, the other is cancelled. The first call goes to the
+ * instances in turn and the second one to the next instance, never to the one that is slow to answer. Hedges draw on
+ * a budget earned by every lookup, status updates are never hedged as they are not idempotent.
+ */
+@Slf4j
+public class HedgingOrderClient implements OrderClient {
+
+	public static final String LATENCY_METER = "order.client.latency";
+	public static final String HEDGES_METER = "order.hedges";
+
+	private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final InstanceOrderClient delegate;
+	private final ServiceInstanceListSupplier instances;
+	private final AtomicInteger position = new AtomicInteger(ThreadLocalRandom.current().nextInt(1000));
+	private final OrderClientProperties.Hedging hedging;
+	private final HedgeBudget budget;
+	private final Timer latency;
+	private final Counter sentHedges;
+	private final Counter wonHedges;
+	private final Counter throttledHedges;
+	private volatile long delayNanos;
+	private volatile long delayRefreshedAt;
+
+	public HedgingOrderClient(final InstanceOrderClient delegate, final ServiceInstanceListSupplier instances,
+			final OrderClientProperties.Hedging hedging, final MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.instances = instances;
+		this.hedging = hedging;
+		this.budget = new HedgeBudget(hedging.getBudgetPercent() / 100, hedging.getBudgetBurst());
+		this.latency = Timer.builder(LATENCY_METER)
+				.description("Latency of the first order lookup call, calls cancelled once their hedge answered "
+						+ "are not timed")
+				.publishPercentiles(hedging.getPercentile())
+				.register(meterRegistry);
+		this.sentHedges = Counter.builder(HEDGES_METER)
+				.description("Hedged order lookups sent")
+				.tag("result", "sent")
+				.register(meterRegistry);
+		this.wonHedges = Counter.builder(HEDGES_METER)
+				.description("Hedged order lookups that answered before the first call")
+				.tag("result", "won")
+				.register(meterRegistry);
+		this.throttledHedges = Counter.builder(HEDGES_METER)
+				.description("Order lookups due for a hedge that the hedge budget did not allow")
+				.tag("result", "throttled")
+				.register(meterRegistry);
+		this.delayNanos = hedging.getInitialDelay().toNanos();
+	}
+
+	@Override
+	public Mono<OrderDto> findById(final Integer orderId) {
+		return this.instances.get()
+				.next()
+				.defaultIfEmpty(List.of())
+				.flatMap(instances -> instances.size() < 2
+						// No other instance to hedge on, the load balancer serves the lookup as usual
+						? this.delegate.findById(orderId)
+						: this.findById(orderId, instances));
+	}
+
+	private Mono<OrderDto> findById(final Integer orderId, final List<ServiceInstance> instances) {
+		return Mono.defer(() -> {
+			this.budget.deposit();
+			final int first = Math.floorMod(this.position.getAndIncrement(), instances.size());
+			final ServiceInstance firstInstance = instances.get(first);
+			final ServiceInstance hedgeInstance = instances.get((first + 1) % instances.size());
+			final long start = System.nanoTime();
+			// A call cancelled once its hedge answered is not timed, the time until the cancel is not its latency
+			final Mono<Optional<OrderDto>> firstCall = this.lookup(firstInstance, orderId)
+					.doOnSuccess(orderDto -> this.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+			final Mono<Optional<OrderDto>> hedge = Mono.delay(Duration.ofNanos(this.hedgeDelayNanos()))
+					.flatMap(tick -> {
+						if (!this.budget.withdraw()) {
+							this.throttledHedges.increment();
+							return Mono.never();
+						}
+						this.sentHedges.increment();
+						log.debug("Hedging lookup of order ID {} on {}", orderId, hedgeInstance.getInstanceId());
+						// A failed hedge leaves the lookup to the first call, only its error may end it
+						return this.lookup(hedgeInstance, orderId)
+								.doOnSuccess(orderDto -> this.wonHedges.increment())
+								.onErrorResume(e -> {
+									log.debug("Hedged lookup of order ID {} failed: {}", orderId, e.getMessage());
+									return Mono.never();
+								});
+					});
+			// A 404 or an error of the first call wins too, only slowness is hedged
+			return Mono.firstWithSignal(firstCall, hedge)
+					.flatMap(Mono::justOrEmpty);
+		});
+	}
+
+	@Override
+	public Mono<Void> updateStatus(final Integer orderId) {
+		return this.delegate.updateStatus(orderId);
+	}
+
+	private Mono<Optional<OrderDto>> lookup(final ServiceInstance instance, final Integer orderId) {
+		return this.delegate.findById(instance, orderId)
+				.map(Optional::of)
+				.defaultIfEmpty(Optional.empty());
+	}
+
+	private long hedgeDelayNanos() {
+		final long now = System.nanoTime();
+		if (now - this.delayRefreshedAt > DELAY_REFRESH_NANOS && this.latency.count() >= this.hedging.getMinSamples()) {
+			// Snapshots are not free, the delay is recomputed at most once a second
+			this.delayRefreshedAt = now;
+			for (final ValueAtPercentile value : this.latency.takeSnapshot().percentileValues()) {
+				this.delayNanos = Math.max((long) value.value(TimeUnit.NANOSECONDS),
+						this.hedging.getMinDelay().toNanos());
+			}
+		}
+		return this.delayNanos;
+	}
+
+	/**
+	 * Every lookup earns ratio of a hedge, up to burst unused hedges are kept.
+	 */
+	private static final class HedgeBudget {
+
+		private final double ratio;
+		private final double burst;
+		private double balance;
+
+		private HedgeBudget(final double ratio, final double burst) {
+			this.ratio = ratio;
+			this.burst = burst;
+		}
+
+		private synchronized void deposit() {
+			this.balance = Math.min(this.balance + this.ratio, this.burst);
+		}
+
+		private synchronized boolean withdraw() {
+			if (this.balance < 1) {
+				return false;
+			}
+			this.balance--;
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.selimhorri.app.client.impl;
+
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.web.client.RestClientException;
+
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.dto.OrderDto;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Guards every ORDER-SERVICE call with the {@value #INSTANCE_NAME} bulkhead, time limiter and circuit breaker,
+ * innermost first. Rejected and timed out calls fail right away with a {@link RestClientException}, falling back
+ * is left to the callers that can afford stale orders.
+ */
+@Slf4j
+public class ResilientOrderClient implements OrderClient {
+	
+	public static final String INSTANCE_NAME = "orderService";
+	
+	private final OrderClient delegate;
+	private final CircuitBreaker circuitBreaker;
+	private final Bulkhead bulkhead;
+	private final TimeLimiter timeLimiter;
+	
+	public ResilientOrderClient(final OrderClient delegate, final CircuitBreakerRegistry circuitBreakerRegistry,
+			final BulkheadRegistry bulkheadRegistry, final TimeLimiterRegistry timeLimiterRegistry) {
+		this.delegate = delegate;
+		this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE_NAME);
+		this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE_NAME);
+		this.timeLimiter = timeLimiterRegistry.timeLimiter(INSTANCE_NAME);
+	}
+	
+	@Override
+	public Mono<OrderDto> findById(final Integer orderId) {
+		return this.decorate(Mono.defer(() -> this.delegate.findById(orderId)));
+	}
+	
+	@Override
+	public Mono<Void> updateStatus(final Integer orderId) {
+		return this.decorate(Mono.defer(() -> this.delegate.updateStatus(orderId)));
+	}
+	
+	private <T> Mono<T> decorate(final Mono<T> call) {
+		// The breaker sits outermost so that it counts timeouts but never trips on a full bulkhead
+		return call
+				.transformDeferred(BulkheadOperator.of(this.bulkhead))
+				.transformDeferred(TimeLimiterOperator.of(this.timeLimiter))
+				.transformDeferred(CircuitBreakerOperator.of(this.circuitBreaker))
+				.onErrorMap(ResilientOrderClient::isRejection, e -> {
+					log.warn("*** ORDER-SERVICE call rejected: {} *", e.getMessage());
+					return new RestClientException("ORDER-SERVICE call rejected: " + e.getMessage(), e);
+				});
+	}
+	
+	private static boolean isRejection(final Throwable e) {
+		return e instanceof CallNotPermittedException
+				|| e instanceof BulkheadFullException
+				|| e instanceof TimeoutException;
+	}
+	
+}
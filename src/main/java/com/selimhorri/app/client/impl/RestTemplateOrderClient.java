@@ -0,0 +1,110 @@
+package com.selimhorri.app.client.impl;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.client.InstanceOrderClient;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.config.client.OrderClientProperties;
+import com.selimhorri.app.config.thread.VirtualThreadsProperties;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.thread.VirtualThreads;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Blocking fallback, each call holds a thread of a dedicated bounded pool for its whole latency. With virtual threads
+ * each call gets its own virtual thread instead, concurrency is then bounded by the bulkhead and the callers'
+ * parallelism. Either way a cancelled call, e.g. a lookup past the enrichment deadline, interrupts its thread.
+ */
+@Component
+@Qualifier(OrderClient.TRANSPORT)
+@ConditionalOnProperty(name = "app.order-client.type", havingValue = "rest-template")
+public class RestTemplateOrderClient implements InstanceOrderClient, DisposableBean {
+	
+	private final RestTemplate restTemplate;
+	private final RestTemplate instanceRestTemplate;
+	private final ExecutorService executor;
+	private final Scheduler scheduler;
+	
+	public RestTemplateOrderClient(final RestTemplate restTemplate, final ClientHttpRequestFactory httpRequestFactory,
+			final OrderClientProperties orderClientProperties, final VirtualThreadsProperties virtualThreadsProperties) {
+		this.restTemplate = restTemplate;
+		// Same connection pool, minus the load balancer interceptor that would pick its own instance
+		this.instanceRestTemplate = new RestTemplate(httpRequestFactory);
+		this.executor = virtualThreadsProperties.isEnabled() && VirtualThreads.isSupported()
+				? VirtualThreads.newThreadPerTaskExecutor("order-client-")
+				: newBlockingPool(orderClientProperties);
+		this.scheduler = Schedulers.fromExecutorService(this.executor, "order-client");
+	}
+	
+	private static ThreadPoolExecutor newBlockingPool(final OrderClientProperties orderClientProperties) {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				orderClientProperties.getBlockingPoolSize(),
+				orderClientProperties.getBlockingPoolSize(),
+				60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(orderClientProperties.getBlockingQueueCapacity()),
+				new CustomizableThreadFactory("order-client-"),
+				new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
+	@Override
+	public Mono<OrderDto> findById(final Integer orderId) {
+		return this.lookup(() -> this.restTemplate.getForObject(
+				AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/" + orderId,
+				OrderDto.class));
+	}
+	
+	@Override
+	public Mono<OrderDto> findById(final ServiceInstance instance, final Integer orderId) {
+		return this.lookup(() -> this.instanceRestTemplate.getForObject(
+				InstanceOrderClient.lookupUri(instance, orderId),
+				OrderDto.class));
+	}
+	
+	private Mono<OrderDto> lookup(final Callable<OrderDto> call) {
+		return Mono.fromCallable(() -> {
+			try {
+				return call.call();
+			}
+			catch (HttpClientErrorException.NotFound e) {
+				return null;
+			}
+		}).subscribeOn(this.scheduler);
+	}
+	
+	@Override
+	public Mono<Void> updateStatus(final Integer orderId) {
+		return Mono.fromRunnable(() -> this.restTemplate.patchForObject(
+				AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/" + orderId + "/status",
+				null,
+				Void.class))
+				.subscribeOn(this.scheduler)
+				.then();
+	}
+	
+	@Override
+	public void destroy() {
+		this.scheduler.dispose();
+		this.executor.shutdownNow();
+	}
+	
+}
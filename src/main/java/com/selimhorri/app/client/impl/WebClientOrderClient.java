@@ -0,0 +1,72 @@
+package com.selimhorri.app.client.impl;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.client.loadbalancer.reactive.DeferringLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.selimhorri.app.client.InstanceOrderClient;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.OrderDto;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+@Component
+@Qualifier(OrderClient.TRANSPORT)
+@ConditionalOnProperty(name = "app.order-client.type", havingValue = "web-client", matchIfMissing = true)
+@Slf4j
+public class WebClientOrderClient implements InstanceOrderClient {
+	
+	private final WebClient webClient;
+	private final WebClient instanceWebClient;
+	
+	public WebClientOrderClient(@LoadBalanced final WebClient.Builder webClientBuilder) {
+		// The builder is shared, a clone keeps the base URL to this client
+		this.webClient = webClientBuilder.clone()
+				.baseUrl(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL)
+				.build();
+		// Same connection pool and metrics, minus the load balancer that would pick its own instance
+		this.instanceWebClient = webClientBuilder.clone()
+				.filters(filters -> filters.removeIf(filter -> filter instanceof DeferringLoadBalancerExchangeFilterFunction
+						|| filter instanceof LoadBalancedExchangeFilterFunction))
+				.build();
+	}
+	
+	@Override
+	public Mono<OrderDto> findById(final Integer orderId) {
+		return this.retrieve(this.webClient.get()
+				.uri("/{orderId}", orderId));
+	}
+	
+	@Override
+	public Mono<OrderDto> findById(final ServiceInstance instance, final Integer orderId) {
+		return this.retrieve(this.instanceWebClient.get()
+				.uri(InstanceOrderClient.lookupUri(instance, orderId)));
+	}
+	
+	private Mono<OrderDto> retrieve(final WebClient.RequestHeadersSpec<?> request) {
+		return request.retrieve()
+				.bodyToMono(OrderDto.class)
+				.onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+				.onErrorMap(WebClientException.class, e -> new RestClientException(e.getMessage(), e));
+	}
+	
+	@Override
+	public Mono<Void> updateStatus(final Integer orderId) {
+		return this.webClient.patch()
+				.uri("/{orderId}/status", orderId)
+				.retrieve()
+				.bodyToMono(Void.class)
+				.onErrorMap(WebClientException.class, e -> new RestClientException(e.getMessage(), e));
+	}
+	
+}
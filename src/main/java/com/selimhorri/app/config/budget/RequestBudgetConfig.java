@@ -0,0 +1,37 @@
+package com.selimhorri.app.config.budget;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.selimhorri.app.budget.RequestBudgetFilter;
+import com.selimhorri.app.budget.RequestBudgetStatementInspector;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.request-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RequestBudgetProperties.class)
+public class RequestBudgetConfig {
+	
+	@Bean
+	public FilterRegistrationBean<RequestBudgetFilter> requestBudgetFilterBean(final MeterRegistry meterRegistry,
+			final RequestBudgetProperties requestBudgetProperties) {
+		final FilterRegistrationBean<RequestBudgetFilter> registration = new FilterRegistrationBean<>(
+				new RequestBudgetFilter(meterRegistry, requestBudgetProperties));
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+		return registration;
+	}
+	
+	@Bean
+	public HibernatePropertiesCustomizer requestBudgetHibernatePropertiesCustomizerBean() {
+		return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR,
+				new RequestBudgetStatementInspector());
+	}
+	
+}
@@ -0,0 +1,26 @@
+package com.selimhorri.app.config.budget;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.request-budget")
+@Data
+public class RequestBudgetProperties {
+	
+	/**
+	 * Counts ORDER-SERVICE calls and SQL statements per request.
+	 */
+	private boolean enabled = true;
+	
+	/**
+	 * ORDER-SERVICE calls a request may make before a warning is logged, cache hits are not calls.
+	 */
+	private int maxOrderCalls = 50;
+	
+	/**
+	 * SQL statements prepared by Hibernate a request may run before a warning is logged.
+	 */
+	private int maxSqlStatements = 10;
+	
+}
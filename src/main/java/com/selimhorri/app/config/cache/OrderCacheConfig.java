@@ -0,0 +1,12 @@
+package com.selimhorri.app.config.cache;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(OrderCacheProperties.class)
+public class OrderCacheConfig {
+	
+	
+	
+}
@@ -0,0 +1,42 @@
+package com.selimhorri.app.config.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.order-cache")
+@Data
+public class OrderCacheProperties {
+	
+	private boolean enabled = true;
+	
+	/**
+	 * Maximum number of orders kept, least recently used entries are evicted first.
+	 */
+	private long maximumSize = 10_000;
+	
+	/**
+	 * Time to live of an order whose status has no entry in {@link #ttl}.
+	 */
+	private Duration defaultTtl = Duration.ofSeconds(30);
+	
+	/**
+	 * Time to live per order status, e.g. ORDERED orders change soon so they are kept briefly.
+	 */
+	private Map<String, Duration> ttl = new HashMap<>();
+	
+	/**
+	 * Time to live of a 404 answer from ORDER-SERVICE.
+	 */
+	private Duration notFoundTtl = Duration.ofSeconds(10);
+	
+	/**
+	 * How long the last order read is kept to answer display lookups while ORDER-SERVICE cannot be reached.
+	 */
+	private Duration staleTtl = Duration.ofMinutes(10);
+	
+}
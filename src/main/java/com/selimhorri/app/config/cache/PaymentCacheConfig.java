@@ -0,0 +1,74 @@
+package com.selimhorri.app.config.cache;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.repository.PaymentRepository;
+
+@Configuration
+@EnableConfigurationProperties(PaymentCacheProperties.class)
+public class PaymentCacheConfig {
+	
+	@Configuration
+	@ConditionalOnProperty(prefix = "app.payment-cache", name = "enabled", havingValue = "true")
+	static class PaymentSecondLevelCacheConfig {
+		
+		@Bean(destroyMethod = "close")
+		public CacheManager paymentJCacheManagerBean(final PaymentCacheProperties paymentCacheProperties) {
+			// A manager of its own rather than the JVM wide default one, regions are created per application context
+			final CachingProvider cachingProvider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+			final CacheManager cacheManager = cachingProvider.getCacheManager(
+					URI.create(PaymentCacheConfig.class.getName() + ":" + UUID.randomUUID()),
+					cachingProvider.getDefaultClassLoader());
+			cacheManager.createCache(Payment.CACHE_REGION,
+					region(paymentCacheProperties.getMaximumSize(), paymentCacheProperties.getEntityTtl()));
+			cacheManager.createCache(PaymentRepository.QUERY_CACHE_REGION,
+					region(paymentCacheProperties.getMaximumSize(), paymentCacheProperties.getQueryTtl()));
+			cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+					region(paymentCacheProperties.getMaximumSize(), paymentCacheProperties.getQueryTtl()));
+			// Update timestamps must outlive every query result they validate, so that region never expires
+			cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+					new CaffeineConfiguration<>());
+			return cacheManager;
+		}
+		
+		@Bean
+		public HibernatePropertiesCustomizer paymentCacheHibernatePropertiesCustomizerBean(final CacheManager paymentJCacheManager) {
+			return hibernateProperties -> {
+				hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+				hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+				hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+				hibernateProperties.put(ConfigSettings.CACHE_MANAGER, paymentJCacheManager);
+				hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+			};
+		}
+		
+		private static <K, V> CaffeineConfiguration<K, V> region(final long maximumSize, final Duration ttl) {
+			final CaffeineConfiguration<K, V> configuration = new CaffeineConfiguration<>();
+			configuration.setMaximumSize(OptionalLong.of(maximumSize));
+			configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+			configuration.setStatisticsEnabled(true);
+			return configuration;
+		}
+		
+	}
+	
+}
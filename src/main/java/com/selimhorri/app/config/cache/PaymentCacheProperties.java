@@ -0,0 +1,33 @@
+package com.selimhorri.app.config.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.payment-cache")
+@Data
+public class PaymentCacheProperties {
+	
+	/**
+	 * Turns on the Hibernate second-level and query caches for payments.
+	 */
+	private boolean enabled = false;
+	
+	/**
+	 * Maximum number of payments, and of cached query results, kept per region.
+	 */
+	private long maximumSize = 10_000;
+	
+	/**
+	 * Time to live of a cached Payment entity.
+	 */
+	private Duration entityTtl = Duration.ofMinutes(5);
+	
+	/**
+	 * Time to live of a cached finder result, writes through Hibernate invalidate it earlier.
+	 */
+	private Duration queryTtl = Duration.ofSeconds(30);
+	
+}
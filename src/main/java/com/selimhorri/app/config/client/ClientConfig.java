@@ -1,22 +1,141 @@
 package com.selimhorri.app.config.client;
 
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.client.InstanceOrderClient;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.client.impl.HedgingOrderClient;
+import com.selimhorri.app.client.impl.ResilientOrderClient;
+import com.selimhorri.app.constant.AppConstant;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
+@EnableConfigurationProperties({ HttpClientProperties.class, OrderClientProperties.class })
 public class ClientConfig {
 
+	public static final String HTTP_CLIENT_POOL_NAME = "rest-template";
+	public static final String WEB_CLIENT_POOL_NAME = "web-client";
+
+	@Bean(destroyMethod = "close")
+	public PoolingHttpClientConnectionManager httpClientConnectionManagerBean(
+			final HttpClientProperties httpClientProperties) {
+		// No time-to-live, idle connections are retired by the keep-alive strategy and the idle evictor
+		final var connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(httpClientProperties.getMaxTotal());
+		connectionManager.setDefaultMaxPerRoute(httpClientProperties.getMaxPerRoute());
+		connectionManager.setValidateAfterInactivity((int) httpClientProperties.getValidateAfterInactivity().toMillis());
+		return connectionManager;
+	}
+
+	@Bean
+	public HttpComponentsClientHttpRequestFactory httpRequestFactoryBean(
+			final PoolingHttpClientConnectionManager connectionManager,
+			final HttpClientProperties httpClientProperties) {
+		final RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout((int) httpClientProperties.getConnectTimeout().toMillis())
+				.setConnectionRequestTimeout((int) httpClientProperties.getConnectionRequestTimeout().toMillis())
+				.setSocketTimeout((int) httpClientProperties.getSocketTimeout().toMillis())
+				.build();
+		final CloseableHttpClient httpClient = HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig)
+				.setKeepAliveStrategy(keepAliveStrategy(httpClientProperties.getKeepAlive().toMillis()))
+				.evictExpiredConnections()
+				.evictIdleConnections(httpClientProperties.getIdleEviction().toMillis(), TimeUnit.MILLISECONDS)
+				.build();
+		return new HttpComponentsClientHttpRequestFactory(httpClient);
+	}
+
 	@LoadBalanced
 	@Bean
-	public RestTemplate restTemplateBean() {
-		CloseableHttpClient httpClient = HttpClients.createDefault();
-		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
-		return new RestTemplate(requestFactory);
+	public RestTemplate restTemplateBean(final HttpComponentsClientHttpRequestFactory httpRequestFactory) {
+		return new RestTemplate(httpRequestFactory);
+	}
+
+	@Bean(destroyMethod = "disposeLater")
+	public ConnectionProvider webClientConnectionProviderBean(final HttpClientProperties httpClientProperties) {
+		return ConnectionProvider.builder(WEB_CLIENT_POOL_NAME)
+				.maxConnections(httpClientProperties.getMaxPerRoute())
+				.pendingAcquireTimeout(httpClientProperties.getConnectionRequestTimeout())
+				.maxIdleTime(httpClientProperties.getKeepAlive())
+				.evictInBackground(httpClientProperties.getIdleEviction())
+				.metrics(true)
+				.build();
+	}
+
+	@LoadBalanced
+	@Bean
+	public WebClient.Builder webClientBuilderBean(final ConnectionProvider connectionProvider,
+			final HttpClientProperties httpClientProperties, final ObjectProvider<WebClientCustomizer> customizers) {
+		final HttpClient httpClient = HttpClient.create(connectionProvider)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) httpClientProperties.getConnectTimeout().toMillis())
+				.responseTimeout(httpClientProperties.getSocketTimeout());
+		final WebClient.Builder webClientBuilder = WebClient.builder()
+				.clientConnector(new ReactorClientHttpConnector(httpClient));
+		// Replaces Boot's builder, so its customizers, e.g. the http.client.requests metrics, are applied here
+		customizers.orderedStream().forEach(customizer -> customizer.customize(webClientBuilder));
+		return webClientBuilder;
+	}
+
+	@Bean
+	public MeterBinder httpClientConnectionPoolMetricsBean(final PoolingHttpClientConnectionManager connectionManager) {
+		return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, HTTP_CLIENT_POOL_NAME);
+	}
+
+	@Primary
+	@Bean
+	public OrderClient orderClientBean(@Qualifier(OrderClient.TRANSPORT) final InstanceOrderClient transport,
+			final OrderClientProperties orderClientProperties, final MeterRegistry meterRegistry,
+			final CircuitBreakerRegistry circuitBreakerRegistry, final BulkheadRegistry bulkheadRegistry,
+			final TimeLimiterRegistry timeLimiterRegistry,
+			final ObjectProvider<LoadBalancerClientFactory> loadBalancerClientFactory) {
+		// Hedges sit under the guards, the time limiter and the breaker see one call whichever attempt answers
+		OrderClient orderClient = transport;
+		if (orderClientProperties.getHedging().isEnabled()) {
+			// The instances the load balancer chooses from, health checks and caching included
+			final ServiceInstanceListSupplier instances = loadBalancerClientFactory.getObject()
+					.getInstance(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_ID, ServiceInstanceListSupplier.class);
+			orderClient = new HedgingOrderClient(transport, instances, orderClientProperties.getHedging(), meterRegistry);
+		}
+		return new ResilientOrderClient(orderClient, circuitBreakerRegistry, bulkheadRegistry, timeLimiterRegistry);
+	}
+
+	private static ConnectionKeepAliveStrategy keepAliveStrategy(final long defaultKeepAliveMillis) {
+		// Honour the server's Keep-Alive header, otherwise never keep a connection longer than configured
+		return (response, context) -> {
+			final long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return keepAlive > 0 ? Math.min(keepAlive, defaultKeepAliveMillis) : defaultKeepAliveMillis;
+		};
 	}
 
 }
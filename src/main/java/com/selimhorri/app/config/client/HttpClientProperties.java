@@ -0,0 +1,47 @@
+package com.selimhorri.app.config.client;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.http-client")
+@Data
+public class HttpClientProperties {
+	
+	/**
+	 * Connections kept across all routes.
+	 */
+	private int maxTotal = 100;
+	
+	/**
+	 * Connections kept per route, i.e. per ORDER-SERVICE instance.
+	 */
+	private int maxPerRoute = 20;
+	
+	private Duration connectTimeout = Duration.ofSeconds(2);
+	
+	/**
+	 * Time a request waits to lease a connection from the pool.
+	 */
+	private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+	
+	private Duration socketTimeout = Duration.ofSeconds(5);
+	
+	/**
+	 * Keep-alive used when the server does not send a Keep-Alive header.
+	 */
+	private Duration keepAlive = Duration.ofSeconds(30);
+	
+	/**
+	 * Idle connections are closed by a background evictor after this time.
+	 */
+	private Duration idleEviction = Duration.ofSeconds(30);
+	
+	/**
+	 * Pooled connections idle for longer are revalidated before being leased again.
+	 */
+	private Duration validateAfterInactivity = Duration.ofSeconds(2);
+	
+}
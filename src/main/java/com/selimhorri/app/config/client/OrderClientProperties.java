@@ -0,0 +1,67 @@
+package com.selimhorri.app.config.client;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.order-client")
+@Data
+public class OrderClientProperties {
+	
+	/**
+	 * ORDER-SERVICE client in use, web-client (non-blocking) or rest-template (blocking fallback).
+	 */
+	private String type = "web-client";
+	
+	/**
+	 * Threads running the blocking rest-template calls, unused when app.virtual-threads.enabled is in effect.
+	 */
+	private int blockingPoolSize = 16;
+	
+	/**
+	 * Blocking calls waiting for a free thread; calls beyond this fail right away. Unused on virtual threads.
+	 */
+	private int blockingQueueCapacity = 2048;
+	
+	private final Hedging hedging = new Hedging();
+	
+	@Data
+	public static class Hedging {
+		
+		/**
+		 * Sends a second order lookup when the first has not answered within the hedge delay.
+		 */
+		private boolean enabled = false;
+		
+		/**
+		 * Percentile of recent lookup latencies used as the hedge delay.
+		 */
+		private double percentile = 0.95;
+		
+		/**
+		 * Hedge delay used until {@link #minSamples} lookups have been timed.
+		 */
+		private Duration initialDelay = Duration.ofMillis(200);
+		
+		/**
+		 * Lower bound of the hedge delay, so fast services are not hedged on noise.
+		 */
+		private Duration minDelay = Duration.ofMillis(20);
+		
+		private long minSamples = 100;
+		
+		/**
+		 * Hedges allowed per 100 lookups, the rest of the slow lookups just wait.
+		 */
+		private double budgetPercent = 10;
+		
+		/**
+		 * Unused hedge allowance that can be saved up for a burst of slow lookups.
+		 */
+		private int budgetBurst = 10;
+		
+	}
+	
+}
@@ -0,0 +1,23 @@
+package com.selimhorri.app.config.enrichment;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.enrichment")
+@Data
+public class EnrichmentProperties {
+	
+	/**
+	 * Maximum number of ORDER-SERVICE lookups running at the same time.
+	 */
+	private int parallelism = 16;
+	
+	/**
+	 * Time budget for enriching one request; unfinished lookups are dropped.
+	 */
+	private Duration deadline = Duration.ofSeconds(5);
+	
+}
@@ -0,0 +1,28 @@
+package com.selimhorri.app.config.idempotency;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import com.selimhorri.app.service.IdempotencyService;
+
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@RequiredArgsConstructor
+public class IdempotencyConfig implements SchedulingConfigurer {
+	
+	private final IdempotencyService idempotencyService;
+	private final IdempotencyProperties idempotencyProperties;
+	
+	@Override
+	public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+		taskRegistrar.addFixedDelayTask(this.idempotencyService::purgeExpired,
+				this.idempotencyProperties.getPurgeInterval().toMillis());
+	}
+	
+}
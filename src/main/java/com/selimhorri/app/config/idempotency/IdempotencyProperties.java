@@ -0,0 +1,31 @@
+package com.selimhorri.app.config.idempotency;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.idempotency")
+@Data
+public class IdempotencyProperties {
+	
+	/**
+	 * How long a key and its stored response are kept, a retry after that runs as a new request.
+	 */
+	private Duration ttl = Duration.ofHours(24);
+	
+	/**
+	 * Lease of an IN_PROGRESS key, a retry after that takes the key over from a request that died or never completed it.
+	 * Keep it above the slowest request the key guards.
+	 */
+	private Duration inProgressTimeout = Duration.ofMinutes(1);
+	
+	/**
+	 * Delay between two purges of expired keys.
+	 */
+	private Duration purgeInterval = Duration.ofMinutes(10);
+	
+	private int maxKeyLength = 255;
+	
+}
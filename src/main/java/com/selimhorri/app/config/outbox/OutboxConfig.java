@@ -0,0 +1,35 @@
+package com.selimhorri.app.config.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import com.selimhorri.app.service.OutboxRelayService;
+
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+	
+	@Configuration
+	@EnableScheduling
+	@ConditionalOnProperty(name = "app.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+	@RequiredArgsConstructor
+	static class OutboxRelaySchedulingConfig implements SchedulingConfigurer {
+		
+		private final OutboxRelayService outboxRelayService;
+		private final OutboxProperties outboxProperties;
+		
+		@Override
+		public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+			taskRegistrar.addFixedDelayTask(this.outboxRelayService::relay,
+					this.outboxProperties.getPollInterval().toMillis());
+		}
+		
+	}
+	
+}
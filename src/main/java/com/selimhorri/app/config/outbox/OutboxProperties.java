@@ -0,0 +1,50 @@
+package com.selimhorri.app.config.outbox;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.outbox")
+@Data
+public class OutboxProperties {
+	
+	/**
+	 * Runs the relay delivering outbox events on this instance.
+	 */
+	private boolean relayEnabled = true;
+	
+	/**
+	 * Delay between the end of one relay run and the start of the next.
+	 */
+	private Duration pollInterval = Duration.ofSeconds(1);
+	
+	/**
+	 * Pending events scanned per relay run.
+	 */
+	private int batchSize = 100;
+	
+	/**
+	 * Deliveries in flight at the same time, each to a different order.
+	 */
+	private int concurrency = 16;
+	
+	/**
+	 * How long a claimed event is hidden from other relays before it can be claimed again.
+	 */
+	private Duration claimTimeout = Duration.ofSeconds(30);
+	
+	/**
+	 * Delivery attempts before an event is marked FAILED and left for manual handling.
+	 */
+	private int maxAttempts = 10;
+	
+	/**
+	 * Backoff after the first failed attempt, doubled on each further failure.
+	 */
+	private Duration initialBackoff = Duration.ofSeconds(1);
+	
+	private Duration maxBackoff = Duration.ofMinutes(5);
+	
+}
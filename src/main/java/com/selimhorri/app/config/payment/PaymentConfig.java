@@ -0,0 +1,35 @@
+package com.selimhorri.app.config.payment;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@EnableConfigurationProperties(PaymentProperties.class)
+public class PaymentConfig {
+	
+	/**
+	 * Completes async payment reads, bounded so a slow ORDER-SERVICE cannot pile up unbounded work.
+	 */
+	@Bean(destroyMethod = "dispose")
+	public Scheduler paymentCompletionSchedulerBean(final PaymentProperties paymentProperties) {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				paymentProperties.getAsync().getCompletionPoolSize(),
+				paymentProperties.getAsync().getCompletionPoolSize(),
+				60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(paymentProperties.getAsync().getCompletionQueueCapacity()),
+				new CustomizableThreadFactory("payment-completion-"),
+				new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return Schedulers.fromExecutorService(executor, "payment-completion");
+	}
+	
+}
@@ -0,0 +1,64 @@
+package com.selimhorri.app.config.payment;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.selimhorri.app.domain.PaymentStatus;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.payments")
+@Data
+public class PaymentProperties {
+	
+	/**
+	 * Payment statuses loaded from the database by findAll before their orders are looked up.
+	 */
+	private Set<PaymentStatus> candidateStatuses = EnumSet.of(PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS);
+	
+	/**
+	 * Largest page size accepted by the cursor paginated findAll.
+	 */
+	private int maxPageLimit = 500;
+	
+	/**
+	 * Rows read per keyset query while streaming payments, bounds the heap used by a stream.
+	 */
+	private int streamBatchSize = 200;
+	
+	/**
+	 * Largest number of payments accepted by one batch creation request.
+	 */
+	private int batchMaxSize = 1000;
+	
+	/**
+	 * ORDER-SERVICE lookups in flight while a batch creation request validates its orders.
+	 */
+	private int batchOrderLookupParallelism = 16;
+	
+	private final Async async = new Async();
+	
+	@Data
+	public static class Async {
+		
+		/**
+		 * Time an async read may take before 503 is returned, order lookups not started by then are dropped.
+		 */
+		private Duration timeout = Duration.ofSeconds(10);
+		
+		/**
+		 * Threads completing async reads once their ORDER-SERVICE lookups answer.
+		 */
+		private int completionPoolSize = 8;
+		
+		/**
+		 * Completions waiting for a free thread; beyond this async reads fail with 503.
+		 */
+		private int completionQueueCapacity = 1000;
+		
+	}
+	
+}
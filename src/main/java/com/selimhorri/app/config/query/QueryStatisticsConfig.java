@@ -0,0 +1,94 @@
+package com.selimhorri.app.config.query;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.internal.StatisticsInitiator;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.config.cache.PaymentCacheProperties;
+import com.selimhorri.app.query.QueryMetricsStatistics;
+import com.selimhorri.app.query.QueryStatisticsEndpoint;
+import com.selimhorri.app.query.SlowQueryLog;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * The one place Hibernate statistics are configured: the query metrics and the second-level cache meters both read
+ * them, so each feature keeps them on without depending on the other.
+ */
+@Configuration
+@EnableConfigurationProperties({QueryStatisticsProperties.class, PaymentCacheProperties.class})
+public class QueryStatisticsConfig {
+	
+	@Bean
+	public HibernatePropertiesCustomizer statisticsHibernatePropertiesCustomizerBean(
+			final QueryStatisticsProperties queryStatisticsProperties,
+			final PaymentCacheProperties paymentCacheProperties) {
+		return hibernateProperties -> {
+			hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS,
+					queryStatisticsProperties.isEnabled() || paymentCacheProperties.isEnabled());
+			// Statistics would otherwise log the metrics of every session at INFO
+			hibernateProperties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+		};
+	}
+	
+	@Configuration
+	@ConditionalOnProperty(prefix = "app.query-statistics", name = "enabled", havingValue = "true", matchIfMissing = true)
+	static class QueryMetricsConfig {
+		
+		@Bean
+		public HibernatePropertiesCustomizer queryStatisticsHibernatePropertiesCustomizerBean(
+				final MeterRegistry meterRegistry, final QueryStatisticsProperties queryStatisticsProperties) {
+			final StatisticsFactory statisticsFactory = sessionFactory -> new QueryMetricsStatistics(sessionFactory,
+					meterRegistry, queryStatisticsProperties.getMaxQueries());
+			return hibernateProperties -> hibernateProperties.put(StatisticsInitiator.STATS_BUILDER, statisticsFactory);
+		}
+		
+		@Bean
+		public SlowQueryLog slowQueryLogBean(final QueryStatisticsProperties queryStatisticsProperties,
+				final MeterRegistry meterRegistry) {
+			return new SlowQueryLog(queryStatisticsProperties, meterRegistry);
+		}
+		
+		/**
+		 * Static, as post-processors are created before the rest of this configuration.
+		 */
+		@Bean
+		public static BeanPostProcessor slowQueryDataSourcePostProcessorBean(final ObjectProvider<SlowQueryLog> slowQueryLog) {
+			return new BeanPostProcessor() {
+				
+				@Override
+				public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+					if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+						return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+								.listener(slowQueryLog.getObject())
+								.build();
+					}
+					return bean;
+				}
+				
+			};
+		}
+		
+		@Bean
+		@ConditionalOnAvailableEndpoint
+		public QueryStatisticsEndpoint queryStatisticsEndpointBean(final EntityManagerFactory entityManagerFactory,
+				final SlowQueryLog slowQueryLog) {
+			return new QueryStatisticsEndpoint(entityManagerFactory, slowQueryLog);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,43 @@
+package com.selimhorri.app.config.query;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.query-statistics")
+@Data
+public class QueryStatisticsProperties {
+	
+	/**
+	 * Records per-query metrics from Hibernate statistics and logs slow JDBC statements.
+	 */
+	private boolean enabled = true;
+	
+	/**
+	 * Distinct queries given their own db.query meters, further queries are recorded under the "other" query tag.
+	 */
+	private int maxQueries = 200;
+	
+	/**
+	 * JDBC statements taking at least this long are logged with their parameters.
+	 */
+	private Duration slowThreshold = Duration.ofMillis(200);
+	
+	/**
+	 * Most recent slow statements kept for the queries actuator endpoint.
+	 */
+	private int slowLogSize = 100;
+	
+	/**
+	 * Parameter sets captured per slow statement, a batch beyond this is cut short.
+	 */
+	private int maxParameterSets = 10;
+	
+	/**
+	 * Captures bound parameters of slow statements, turn off where parameters must not reach the logs.
+	 */
+	private boolean captureParameters = true;
+	
+}
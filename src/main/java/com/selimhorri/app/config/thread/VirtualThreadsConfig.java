@@ -0,0 +1,35 @@
+package com.selimhorri.app.config.thread;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.selimhorri.app.thread.VirtualThreads;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(VirtualThreadsProperties.class)
+public class VirtualThreadsConfig {
+	
+	/**
+	 * Replaces Tomcat's bounded worker pool with a virtual thread per request, server.tomcat.threads.* no longer
+	 * apply and server.tomcat.max-connections becomes the concurrency limit.
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = "app.virtual-threads", name = "enabled", havingValue = "true")
+	public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizerBean() {
+		if (!VirtualThreads.isSupported()) {
+			log.warn("*** Virtual threads enabled but unavailable, {}; keeping platform threads *",
+					VirtualThreads.unsupportedReason());
+			return protocolHandler -> {};
+		}
+		log.info("*** Tomcat request handling on virtual threads *");
+		return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("tomcat-handler-"));
+	}
+	
+}
@@ -0,0 +1,17 @@
+package com.selimhorri.app.config.thread;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@ConfigurationProperties(prefix = "app.virtual-threads")
+@Data
+public class VirtualThreadsProperties {
+	
+	/**
+	 * Runs Tomcat request handling and blocking ORDER-SERVICE calls on virtual threads. Needs Java 21 or later at
+	 * runtime, platform threads are kept otherwise.
+	 */
+	private boolean enabled = false;
+	
+}
@@ -0,0 +1,33 @@
+package com.selimhorri.app.config.transaction;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+public class TransactionConfig {
+	
+	public static final String READ_ONLY = "readOnlyTransactionOperations";
+	
+	/**
+	 * Stands in for the template Spring Boot backs off from once another one is declared.
+	 */
+	@Bean
+	@Primary
+	public TransactionTemplate transactionTemplateBean(final PlatformTransactionManager transactionManager) {
+		return new TransactionTemplate(transactionManager);
+	}
+	
+	/**
+	 * Read-only transactions, Hibernate skips dirty checking and flushing and the connection is flagged read-only.
+	 */
+	@Bean(READ_ONLY)
+	public TransactionTemplate readOnlyTransactionTemplateBean(final PlatformTransactionManager transactionManager) {
+		final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+		return transactionTemplate;
+	}
+	
+}
@@ -0,0 +1,77 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request already seen under an Idempotency-Key, with the response to replay once it completed.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public final class IdempotencyKey implements Persistable<String>, Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@Column(name = "idempotency_key", unique = true, nullable = false, updatable = false)
+	private String idempotencyKey;
+	
+	@Column(name = "request_fingerprint", nullable = false, updatable = false)
+	private String requestFingerprint;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "key_status", nullable = false)
+	private IdempotencyKeyStatus keyStatus;
+	
+	@Column(name = "response_body")
+	private String responseBody;
+	
+	@Column(name = "created_at", updatable = false)
+	private Instant createdAt;
+	
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+	
+	// The key is assigned by the client, so save() must insert it instead of merging over an existing row
+	@Transient
+	@Builder.Default
+	private boolean isNew = true;
+	
+	@Override
+	public String getId() {
+		return this.idempotencyKey;
+	}
+	
+	@Override
+	public boolean isNew() {
+		return this.isNew;
+	}
+	
+	@PostLoad
+	@PostPersist
+	protected void markNotNew() {
+		this.isNew = false;
+	}
+	
+}
@@ -0,0 +1,73 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Call to ORDER-SERVICE recorded in the same transaction as the payment, delivered later by the outbox relay.
+ */
+@Entity
+@Table(name = "outbox_events")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public final class OutboxEvent implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "outbox_event_id", unique = true, nullable = false, updatable = false)
+	private Integer outboxEventId;
+	
+	@Column(name = "order_id", nullable = false, updatable = false)
+	private Integer orderId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "event_type", nullable = false, updatable = false)
+	private OutboxEventType eventType;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "event_status", nullable = false)
+	private OutboxEventStatus eventStatus;
+	
+	@Column(name = "attempts", nullable = false)
+	private int attempts;
+	
+	@Column(name = "next_attempt_at", nullable = false)
+	private Instant nextAttemptAt;
+	
+	@Column(name = "last_error")
+	private String lastError;
+	
+	@Column(name = "created_at", updatable = false)
+	private Instant createdAt;
+	
+	public static OutboxEvent orderStatusPatch(final Integer orderId) {
+		final Instant now = Instant.now();
+		return OutboxEvent.builder()
+				.orderId(orderId)
+				.eventType(OutboxEventType.ORDER_STATUS_PATCH)
+				.eventStatus(OutboxEventStatus.PENDING)
+				.attempts(0)
+				.nextAttemptAt(now)
+				.createdAt(now)
+				.build();
+	}
+	
+}
@@ -0,0 +1,7 @@
+package com.selimhorri.app.domain;
+
+public enum OutboxEventType {
+	
+	ORDER_STATUS_PATCH;
+	
+}
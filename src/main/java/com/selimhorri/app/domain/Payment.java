@@ -2,6 +2,7 @@ package com.selimhorri.app.domain;
 
 import java.io.Serializable;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
@@ -10,6 +11,10 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,6 +24,8 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "payments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Payment.CACHE_REGION)
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
@@ -28,6 +35,8 @@ public final class Payment extends AbstractMappedEntity implements Serializable
 	
 	private static final long serialVersionUID = 1L;
 	
+	public static final String CACHE_REGION = "payments";
+	
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Column(name = "payment_id", unique = true, nullable = false, updatable = false)
@@ -43,6 +52,10 @@ public final class Payment extends AbstractMappedEntity implements Serializable
 	@Column(name = "payment_status")
 	private PaymentStatus paymentStatus;
 	
+	@Version
+	@Column(name = "version", nullable = false)
+	private Long version;
+	
 }
 
 
@@ -0,0 +1,52 @@
+package com.selimhorri.app.domain;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Allowed payment status changes, precomputed per source status.
+ */
+public enum PaymentStatusTransition {
+	
+	ADVANCE(
+			Map.of(
+					PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS,
+					PaymentStatus.IN_PROGRESS, PaymentStatus.COMPLETED),
+			Map.of(
+					PaymentStatus.COMPLETED, "Payment is already COMPLETED and cannot be updated further",
+					PaymentStatus.CANCELED, "Payment is CANCELED and cannot be updated")),
+	CANCEL(
+			Map.of(
+					PaymentStatus.NOT_STARTED, PaymentStatus.CANCELED,
+					PaymentStatus.IN_PROGRESS, PaymentStatus.CANCELED),
+			Map.of(
+					PaymentStatus.COMPLETED, "Cannot cancel a completed payment",
+					PaymentStatus.CANCELED, "Payment is already canceled"));
+	
+	private final Map<PaymentStatus, PaymentStatus> targets;
+	private final Map<PaymentStatus, String> rejections;
+	
+	PaymentStatusTransition(final Map<PaymentStatus, PaymentStatus> targets, final Map<PaymentStatus, String> rejections) {
+		this.targets = Collections.unmodifiableMap(new EnumMap<>(targets));
+		this.rejections = Collections.unmodifiableMap(new EnumMap<>(rejections));
+	}
+	
+	/**
+	 * @return the status a payment in the given status moves to, empty when the transition is not allowed
+	 */
+	public Optional<PaymentStatus> targetOf(final PaymentStatus source) {
+		return Optional.ofNullable(source == null ? null : this.targets.get(source));
+	}
+	
+	public String rejectionOf(final PaymentStatus source) {
+		return this.rejections.getOrDefault(source, "Unknown payment status: " + source);
+	}
+	
+	public Set<PaymentStatus> sources() {
+		return this.targets.keySet();
+	}
+	
+}
@@ -28,6 +28,14 @@ public class PaymentDto implements Serializable {
 	@JsonInclude(Include.NON_NULL)
 	private OrderDto orderDto;
 	
+	/**
+	 * Target of the constructor expressions in PaymentRepository, rows are read straight into the DTO.
+	 */
+	public PaymentDto(final Integer paymentId, final Integer orderId, final Boolean isPayed,
+			final PaymentStatus paymentStatus) {
+		this(paymentId, isPayed, paymentStatus, OrderDto.builder().orderId(orderId).build());
+	}
+	
 }
 
 
@@ -0,0 +1,44 @@
+package com.selimhorri.app.dto.response;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.selimhorri.app.dto.PaymentDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch payment creation, index is its position in the request.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@JsonInclude(Include.NON_NULL)
+public class PaymentBatchItemResponse implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public enum Outcome {
+		CREATED,
+		REJECTED
+	}
+	
+	private int index;
+	private Outcome outcome;
+	private PaymentDto payment;
+	private String message;
+	
+	public static PaymentBatchItemResponse created(final int index, final PaymentDto paymentDto) {
+		return new PaymentBatchItemResponse(index, Outcome.CREATED, paymentDto, null);
+	}
+	
+	public static PaymentBatchItemResponse rejected(final int index, final String message) {
+		return new PaymentBatchItemResponse(index, Outcome.REJECTED, null, message);
+	}
+	
+}
@@ -0,0 +1,51 @@
+package com.selimhorri.app.dto.response;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.selimhorri.app.domain.PaymentStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk status change for one payment ID.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@JsonInclude(Include.NON_NULL)
+public class PaymentStatusUpdateResponse implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public enum Outcome {
+		UPDATED,
+		REJECTED,
+		NOT_FOUND
+	}
+	
+	private Integer paymentId;
+	private Outcome outcome;
+	private PaymentStatus paymentStatus;
+	private String message;
+	
+	public static PaymentStatusUpdateResponse updated(final Integer paymentId, final PaymentStatus paymentStatus) {
+		return new PaymentStatusUpdateResponse(paymentId, Outcome.UPDATED, paymentStatus, null);
+	}
+	
+	public static PaymentStatusUpdateResponse rejected(final Integer paymentId, final PaymentStatus paymentStatus,
+			final String message) {
+		return new PaymentStatusUpdateResponse(paymentId, Outcome.REJECTED, paymentStatus, message);
+	}
+	
+	public static PaymentStatusUpdateResponse notFound(final Integer paymentId) {
+		return new PaymentStatusUpdateResponse(paymentId, Outcome.NOT_FOUND, null,
+				"Payment with id: " + paymentId + " not found");
+	}
+	
+}
@@ -0,0 +1,23 @@
+package com.selimhorri.app.dto.response.collection;
+
+import java.util.Collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class DtoCursorPageResponse<T> {
+	
+	private Collection<T> collection;
+	
+	/**
+	 * Opaque cursor of the next page, null on the last page.
+	 */
+	private String next;
+	
+}
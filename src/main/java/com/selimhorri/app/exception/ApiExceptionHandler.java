@@ -2,7 +2,9 @@ package com.selimhorri.app.exception;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -10,8 +12,11 @@ import org.springframework.validation.BindException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import com.selimhorri.app.exception.payload.ExceptionMsg;
+import com.selimhorri.app.exception.wrapper.IdempotencyConflictException;
+import com.selimhorri.app.exception.wrapper.PaymentConflictException;
 import com.selimhorri.app.exception.wrapper.PaymentServiceException;
 
 import lombok.RequiredArgsConstructor;
@@ -79,4 +84,43 @@ public class ApiExceptionHandler {
 				badRequest);
 	}
 
+	@ExceptionHandler(value = {
+			IdempotencyConflictException.class,
+			PaymentConflictException.class,
+			OptimisticLockingFailureException.class,
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiConflictException(final T e) {
+
+		log.info("**ApiExceptionHandler controller, handle API conflict*\n");
+		final var conflict = HttpStatus.CONFLICT;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg("#### " + e.getMessage() + "! ####")
+						.httpStatus(conflict)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				conflict);
+	}
+
+	@ExceptionHandler(value = {
+			AsyncRequestTimeoutException.class,
+			RejectedExecutionException.class,
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiUnavailableException(final T e) {
+
+		log.info("**ApiExceptionHandler controller, handle API unavailable*\n");
+		final var serviceUnavailable = HttpStatus.SERVICE_UNAVAILABLE;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg("#### " + (e.getMessage() == null ? "Request timed out" : e.getMessage()) + "! ####")
+						.httpStatus(serviceUnavailable)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				serviceUnavailable);
+	}
+
 }
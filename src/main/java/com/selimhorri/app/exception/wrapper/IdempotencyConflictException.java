@@ -0,0 +1,23 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class IdempotencyConflictException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public IdempotencyConflictException() {
+		super();
+	}
+	
+	public IdempotencyConflictException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public IdempotencyConflictException(String message) {
+		super(message);
+	}
+	
+	public IdempotencyConflictException(Throwable cause) {
+		super(cause);
+	}
+	
+}
@@ -0,0 +1,23 @@
+package com.selimhorri.app.exception.wrapper;
+
+public class PaymentConflictException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public PaymentConflictException() {
+		super();
+	}
+	
+	public PaymentConflictException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public PaymentConflictException(String message) {
+		super(message);
+	}
+	
+	public PaymentConflictException(Throwable cause) {
+		super(cause);
+	}
+	
+}
@@ -0,0 +1,28 @@
+package com.selimhorri.app.helper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public interface PaymentCursorHelper {
+
+	public static final String CURSOR_PREFIX = "p:";
+
+	public static String encode(final Integer paymentId) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((CURSOR_PREFIX + paymentId).getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static Integer decode(final String cursor) {
+		try {
+			final String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			if (!decoded.startsWith(CURSOR_PREFIX)) {
+				throw new IllegalArgumentException("Invalid cursor");
+			}
+			return Integer.valueOf(decoded.substring(CURSOR_PREFIX.length()));
+		}
+		catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor", e);
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.selimhorri.app.query;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Hibernate statistics that also record every executed query as db.query and db.query.rows meters tagged with the
+ * query, so execution counts, latency histograms and rows returned per query reach Prometheus.
+ */
+public class QueryMetricsStatistics extends StatisticsImpl {
+	
+	public static final String QUERY_METER = "db.query";
+	public static final String ROWS_METER = "db.query.rows";
+	public static final String OTHER_QUERY = "other";
+	
+	private final MeterRegistry meterRegistry;
+	private final int maxQueries;
+	private final ConcurrentMap<String, QueryMeters> meters = new ConcurrentHashMap<>();
+	
+	public QueryMetricsStatistics(final SessionFactoryImplementor sessionFactory, final MeterRegistry meterRegistry,
+			final int maxQueries) {
+		super(sessionFactory);
+		this.meterRegistry = meterRegistry;
+		this.maxQueries = maxQueries;
+	}
+	
+	@Override
+	public void queryExecuted(final String hql, final int rows, final long time) {
+		super.queryExecuted(hql, rows, time);
+		final QueryMeters queryMeters = this.meters(hql == null ? OTHER_QUERY : hql);
+		queryMeters.executions.record(time, TimeUnit.MILLISECONDS);
+		queryMeters.rows.record(rows);
+	}
+	
+	private QueryMeters meters(final String query) {
+		final QueryMeters queryMeters = this.meters.get(query);
+		if (queryMeters != null) {
+			return queryMeters;
+		}
+		// Every distinct query is a time series, past the limit they share one
+		final String tag = this.meters.size() < this.maxQueries ? query : OTHER_QUERY;
+		return this.meters.computeIfAbsent(tag, this::register);
+	}
+	
+	private QueryMeters register(final String query) {
+		return new QueryMeters(
+				Timer.builder(QUERY_METER)
+						.description("Execution time of a query")
+						.tag("query", query)
+						.publishPercentileHistogram()
+						.register(this.meterRegistry),
+				DistributionSummary.builder(ROWS_METER)
+						.description("Rows returned by a query")
+						.tag("query", query)
+						.register(this.meterRegistry));
+	}
+	
+	private static final class QueryMeters {
+		
+		private final Timer executions;
+		private final DistributionSummary rows;
+		
+		private QueryMeters(final Timer executions, final DistributionSummary rows) {
+			this.executions = executions;
+			this.rows = rows;
+		}
+		
+	}
+	
+}
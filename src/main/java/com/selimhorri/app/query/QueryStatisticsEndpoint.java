@@ -0,0 +1,85 @@
+package com.selimhorri.app.query;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import lombok.Value;
+
+/**
+ * Lists executed queries by the time spent in them together with the recent slow JDBC statements, so DB hot spots
+ * show up at /actuator/queries instead of in formatted SQL logs. A delete resets both.
+ */
+@Endpoint(id = "queries")
+public class QueryStatisticsEndpoint {
+	
+	private final Statistics statistics;
+	private final SlowQueryLog slowQueryLog;
+	
+	public QueryStatisticsEndpoint(final EntityManagerFactory entityManagerFactory, final SlowQueryLog slowQueryLog) {
+		this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		this.slowQueryLog = slowQueryLog;
+	}
+	
+	@ReadOperation
+	public QueriesReport queries() {
+		final List<QueryReport> queries = Arrays.stream(this.statistics.getQueries())
+				.map(query -> QueryReport.of(query, this.statistics.getQueryStatistics(query)))
+				// Queries only compiled so far, such as the unexpanded form of a collection parameter, are left out
+				.filter(queryReport -> queryReport.getExecutions() > 0)
+				.sorted(Comparator.comparingLong(QueryReport::getTotalTimeMillis).reversed())
+				.collect(Collectors.toUnmodifiableList());
+		return new QueriesReport(this.statistics.isStatisticsEnabled(), queries,
+				this.slowQueryLog.getThresholdMillis(), this.slowQueryLog.recent());
+	}
+	
+	@DeleteOperation
+	public void reset() {
+		this.statistics.clear();
+		this.slowQueryLog.clear();
+	}
+	
+	@Value
+	public static class QueriesReport {
+		
+		boolean statisticsEnabled;
+		List<QueryReport> queries;
+		long slowThresholdMillis;
+		List<SlowQuery> slowQueries;
+		
+	}
+	
+	@Value
+	public static class QueryReport {
+		
+		String query;
+		long executions;
+		long rows;
+		long totalTimeMillis;
+		double avgTimeMillis;
+		long minTimeMillis;
+		long maxTimeMillis;
+		
+		static QueryReport of(final String query, final QueryStatistics queryStatistics) {
+			return new QueryReport(query,
+					queryStatistics.getExecutionCount(),
+					queryStatistics.getExecutionRowCount(),
+					queryStatistics.getExecutionTotalTime(),
+					queryStatistics.getExecutionAvgTimeAsDouble(),
+					queryStatistics.getExecutionMinTime(),
+					queryStatistics.getExecutionMaxTime());
+		}
+		
+	}
+	
+}
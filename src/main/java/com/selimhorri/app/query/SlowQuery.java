@@ -0,0 +1,20 @@
+package com.selimhorri.app.query;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * A JDBC statement that took at least the slow-query threshold, with the parameter sets it was bound with.
+ */
+@Value
+public class SlowQuery {
+	
+	String executedAt;
+	long elapsedMillis;
+	boolean success;
+	int batchSize;
+	List<String> queries;
+	List<List<String>> parameters;
+	
+}
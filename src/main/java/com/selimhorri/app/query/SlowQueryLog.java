@@ -0,0 +1,122 @@
+package com.selimhorri.app.query;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.selimhorri.app.config.query.QueryStatisticsProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Logs JDBC statements slower than the threshold with their parameters and keeps the most recent ones. Statements
+ * under the threshold only cost a comparison.
+ */
+@Slf4j
+public class SlowQueryLog implements QueryExecutionListener {
+	
+	public static final String SLOW_QUERIES_METER = "db.query.slow";
+	
+	private static final int MAX_PARAMETER_LENGTH = 100;
+	
+	private final QueryStatisticsProperties queryStatisticsProperties;
+	private final long thresholdMillis;
+	private final Counter slowQueries;
+	private final Deque<SlowQuery> recent = new ArrayDeque<>();
+	
+	public SlowQueryLog(final QueryStatisticsProperties queryStatisticsProperties, final MeterRegistry meterRegistry) {
+		this.queryStatisticsProperties = queryStatisticsProperties;
+		this.thresholdMillis = queryStatisticsProperties.getSlowThreshold().toMillis();
+		this.slowQueries = Counter.builder(SLOW_QUERIES_METER)
+				.description("JDBC statements that took at least the slow-query threshold")
+				.register(meterRegistry);
+	}
+	
+	@Override
+	public void beforeQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+		// Only completed statements are timed
+	}
+	
+	@Override
+	public void afterQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+		if (execInfo.getElapsedTime() < this.thresholdMillis) {
+			return;
+		}
+		final SlowQuery slowQuery = new SlowQuery(
+				Instant.now().toString(),
+				execInfo.getElapsedTime(),
+				execInfo.isSuccess(),
+				execInfo.getBatchSize(),
+				queryInfoList.stream()
+						.map(QueryInfo::getQuery)
+						.collect(Collectors.toUnmodifiableList()),
+				this.queryStatisticsProperties.isCaptureParameters() ? this.parameters(queryInfoList) : List.of());
+		this.slowQueries.increment();
+		log.warn("*** Slow query, {} ms{}: {} with parameters {} *", slowQuery.getElapsedMillis(),
+				slowQuery.isSuccess() ? "" : " (failed)", slowQuery.getQueries(), slowQuery.getParameters());
+		synchronized (this.recent) {
+			if (this.recent.size() >= this.queryStatisticsProperties.getSlowLogSize()) {
+				this.recent.removeFirst();
+			}
+			this.recent.addLast(slowQuery);
+		}
+	}
+	
+	/**
+	 * @return the slow statements kept, most recent first
+	 */
+	public List<SlowQuery> recent() {
+		synchronized (this.recent) {
+			final List<SlowQuery> slowQueries = new ArrayList<>(this.recent);
+			Collections.reverse(slowQueries);
+			return slowQueries;
+		}
+	}
+	
+	public long getThresholdMillis() {
+		return this.thresholdMillis;
+	}
+	
+	public void clear() {
+		synchronized (this.recent) {
+			this.recent.clear();
+		}
+	}
+	
+	private List<List<String>> parameters(final List<QueryInfo> queryInfoList) {
+		final List<List<String>> parameters = new ArrayList<>();
+		for (final QueryInfo queryInfo : queryInfoList) {
+			for (final List<ParameterSetOperation> parameterSet : queryInfo.getParametersList()) {
+				if (parameters.size() == this.queryStatisticsProperties.getMaxParameterSets()) {
+					return parameters;
+				}
+				parameters.add(parameterSet.stream()
+						.map(SlowQueryLog::value)
+						.collect(Collectors.toUnmodifiableList()));
+			}
+		}
+		return parameters;
+	}
+	
+	private static String value(final ParameterSetOperation operation) {
+		final Method method = operation.getMethod();
+		final Object[] args = operation.getArgs();
+		if ("setNull".equals(method.getName()) || args.length < 2) {
+			return "null";
+		}
+		final String value = String.valueOf(args[1]);
+		return value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value;
+	}
+	
+}
@@ -0,0 +1,18 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.IdempotencyKey;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+	
+	@Modifying
+	@Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+	int deleteExpired(@Param("now") final Instant now);
+	
+}
@@ -0,0 +1,14 @@
+package com.selimhorri.app.repository;
+
+import java.util.List;
+
+import com.selimhorri.app.domain.OutboxEvent;
+
+public interface OutboxEventBatchRepository {
+	
+	/**
+	 * Inserts the events with one JDBC batch, generated IDs are not read back.
+	 */
+	void insertAll(final List<OutboxEvent> outboxEvents);
+	
+}
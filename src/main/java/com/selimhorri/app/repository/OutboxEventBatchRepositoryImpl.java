@@ -0,0 +1,35 @@
+package com.selimhorri.app.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.selimhorri.app.domain.OutboxEvent;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class OutboxEventBatchRepositoryImpl implements OutboxEventBatchRepository {
+	
+	private static final String INSERT_SQL = "INSERT INTO outbox_events"
+			+ " (order_id, event_type, event_status, attempts, next_attempt_at, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+	
+	private final JdbcTemplate jdbcTemplate;
+	
+	@Override
+	public void insertAll(final List<OutboxEvent> outboxEvents) {
+		if (outboxEvents.isEmpty()) {
+			return;
+		}
+		this.jdbcTemplate.batchUpdate(INSERT_SQL, outboxEvents, outboxEvents.size(), (statement, event) -> {
+			statement.setInt(1, event.getOrderId());
+			statement.setString(2, event.getEventType().name());
+			statement.setString(3, event.getEventStatus().name());
+			statement.setInt(4, event.getAttempts());
+			statement.setTimestamp(5, Timestamp.from(event.getNextAttemptAt()));
+			statement.setTimestamp(6, Timestamp.from(event.getCreatedAt()));
+		});
+	}
+	
+}
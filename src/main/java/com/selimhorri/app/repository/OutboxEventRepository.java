@@ -0,0 +1,49 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.OutboxEventStatus;
+import com.selimhorri.app.domain.OutboxEventType;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Integer>, OutboxEventBatchRepository {
+	
+	/**
+	 * Oldest due events first and locked, so relays running on several instances claim them one at a time.
+	 * Only the oldest event of an order is returned, later ones wait until it is delivered or has failed.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT e FROM OutboxEvent e"
+			+ " WHERE e.eventStatus = :eventStatus AND e.nextAttemptAt <= :now"
+			+ " AND NOT EXISTS (SELECT o FROM OutboxEvent o"
+			+ " WHERE o.orderId = e.orderId AND o.eventStatus = :eventStatus AND o.outboxEventId < e.outboxEventId)"
+			+ " ORDER BY e.outboxEventId")
+	List<OutboxEvent> findDueForUpdate(
+			@Param("eventStatus") final OutboxEventStatus eventStatus,
+			@Param("now") final Instant now,
+			final Pageable pageable);
+	
+	@Query("SELECT DISTINCT e.orderId FROM OutboxEvent e"
+			+ " WHERE e.orderId IN :orderIds AND e.eventType = :eventType AND e.eventStatus = :eventStatus")
+	Set<Integer> findOrderIdsWithEvent(
+			@Param("orderIds") final Collection<Integer> orderIds,
+			@Param("eventType") final OutboxEventType eventType,
+			@Param("eventStatus") final OutboxEventStatus eventStatus);
+	
+	boolean existsByOrderIdAndEventTypeAndEventStatus(
+			final Integer orderId,
+			final OutboxEventType eventType,
+			final OutboxEventStatus eventStatus);
+	
+}
@@ -0,0 +1,14 @@
+package com.selimhorri.app.repository;
+
+import java.util.List;
+
+import com.selimhorri.app.domain.Payment;
+
+public interface PaymentBatchRepository {
+	
+	/**
+	 * Inserts the payments with one JDBC batch and sets their generated IDs.
+	 */
+	List<Payment> insertAll(final List<Payment> payments);
+	
+}
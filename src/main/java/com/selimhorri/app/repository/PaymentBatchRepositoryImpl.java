@@ -0,0 +1,90 @@
+package com.selimhorri.app.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.selimhorri.app.domain.Payment;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Payment IDs are IDENTITY generated, which rules out Hibernate insert batching, hence plain JDBC.
+ * Hibernate does not see these inserts, so the cached payment finder results are evicted by hand.
+ */
+@RequiredArgsConstructor
+public class PaymentBatchRepositoryImpl implements PaymentBatchRepository {
+	
+	private static final String INSERT_SQL = "INSERT INTO payments"
+			+ " (order_id, is_payed, payment_status, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, 0)";
+	
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManagerFactory entityManagerFactory;
+	
+	@Override
+	public List<Payment> insertAll(final List<Payment> payments) {
+		if (payments.isEmpty()) {
+			return payments;
+		}
+		final Instant now = Instant.now();
+		this.evictCachedQueriesOnCompletion();
+		return this.jdbcTemplate.execute((ConnectionCallback<List<Payment>>) connection -> {
+			try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+				for (final Payment payment : payments) {
+					payment.setCreatedAt(now);
+					payment.setUpdatedAt(now);
+					payment.setVersion(0L);
+					statement.setInt(1, payment.getOrderId());
+					statement.setBoolean(2, payment.getIsPayed());
+					statement.setString(3, payment.getPaymentStatus().name());
+					statement.setTimestamp(4, Timestamp.from(now));
+					statement.setTimestamp(5, Timestamp.from(now));
+					statement.addBatch();
+				}
+				statement.executeBatch();
+				
+				int i = 0;
+				try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+					while (generatedKeys.next() && i < payments.size()) {
+						payments.get(i++).setPaymentId(generatedKeys.getInt(1));
+					}
+				}
+				if (i != payments.size()) {
+					throw new IncorrectResultSizeDataAccessException("Generated payment IDs", payments.size(), i);
+				}
+				return payments;
+			}
+		});
+	}
+	
+	/**
+	 * Evicts now and again once the transaction ends, a concurrent reader may re-cache the old result in between.
+	 */
+	private void evictCachedQueriesOnCompletion() {
+		final Cache cache = this.entityManagerFactory.unwrap(SessionFactory.class).getCache();
+		cache.evictQueryRegion(PaymentRepository.QUERY_CACHE_REGION);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(final int status) {
+					cache.evictQueryRegion(PaymentRepository.QUERY_CACHE_REGION);
+				}
+			});
+		}
+	}
+	
+}
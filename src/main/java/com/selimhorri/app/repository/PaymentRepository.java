@@ -1,11 +1,114 @@
 package com.selimhorri.app.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.PaymentDto;
 
-public interface PaymentRepository extends JpaRepository<Payment, Integer> {
+public interface PaymentRepository extends JpaRepository<Payment, Integer>, PaymentBatchRepository {
+	
+	/**
+	 * Reads rows into PaymentDto without hydrating managed Payment entities.
+	 */
+	String DTO_PROJECTION = "new com.selimhorri.app.dto.PaymentDto(p.paymentId, p.orderId, p.isPayed, p.paymentStatus)";
+	
+	/**
+	 * Query cache region of the finders clients poll, only used when app.payment-cache.enabled is set.
+	 */
+	String QUERY_CACHE_REGION = "payments-queries";
+	
+	/**
+	 * Read-only projection covered by idx_payments_status_payment_id (payment_status, payment_id, order_id, is_payed).
+	 */
+	@Query("SELECT " + DTO_PROJECTION + " FROM Payment p"
+			+ " WHERE p.paymentStatus IN :paymentStatuses AND p.orderId IS NOT NULL"
+			+ " ORDER BY p.paymentId")
+	List<PaymentDto> findCandidates(@Param("paymentStatuses") final Collection<PaymentStatus> paymentStatuses);
+	
+	/**
+	 * Keyset seek on idx_payments_status_payment_id, no offset to skip through.
+	 */
+	@Query("SELECT " + DTO_PROJECTION + " FROM Payment p"
+			+ " WHERE p.paymentStatus IN :paymentStatuses AND p.orderId IS NOT NULL"
+			+ " AND p.paymentId > :afterPaymentId"
+			+ " ORDER BY p.paymentId")
+	List<PaymentDto> findCandidatesAfter(
+			@Param("paymentStatuses") final Collection<PaymentStatus> paymentStatuses,
+			@Param("afterPaymentId") final Integer afterPaymentId,
+			final Pageable pageable);
+	
+	@QueryHints({
+			@QueryHint(name = HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HINT_CACHE_REGION, value = QUERY_CACHE_REGION) })
+	@Query("SELECT " + DTO_PROJECTION + " FROM Payment p WHERE p.paymentId = :paymentId")
+	Optional<PaymentDto> findDtoById(@Param("paymentId") final Integer paymentId);
+	
+	/**
+	 * One IN query served by idx_payments_order_id_status, an order may hold several payments.
+	 */
+	@QueryHints({
+			@QueryHint(name = HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HINT_CACHE_REGION, value = QUERY_CACHE_REGION) })
+	@Query("SELECT " + DTO_PROJECTION + " FROM Payment p WHERE p.orderId IN :orderIds"
+			+ " ORDER BY p.orderId, p.paymentId")
+	List<PaymentDto> findAllByOrderIdIn(@Param("orderIds") final Collection<Integer> orderIds);
+	
+	/**
+	 * Locks the rows so that a bulk transition reports exactly what its UPDATE statements change.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT p FROM Payment p WHERE p.paymentId IN :paymentIds")
+	List<Payment> findAllByIdForUpdate(@Param("paymentIds") final Collection<Integer> paymentIds);
+	
+	/**
+	 * Compare-and-set on the status, rows that moved away from the source status since they were read are left alone.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Payment p SET p.paymentStatus = :targetStatus, p.version = p.version + 1, p.updatedAt = :updatedAt"
+			+ " WHERE p.paymentId IN :paymentIds AND p.paymentStatus = :sourceStatus")
+	int updateStatus(
+			@Param("paymentIds") final Collection<Integer> paymentIds,
+			@Param("sourceStatus") final PaymentStatus sourceStatus,
+			@Param("targetStatus") final PaymentStatus targetStatus,
+			@Param("updatedAt") final Instant updatedAt);
 	
+	/**
+	 * PaymentStatusTransition.ADVANCE as a single UPDATE: the payment moves one step on if its current status allows it,
+	 * no read is needed beforehand.
+	 */
+	default int advanceStatus(final Integer paymentId, final Instant updatedAt) {
+		return this.advanceStatus(paymentId, PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS,
+				PaymentStatus.COMPLETED, updatedAt);
+	}
 	
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Payment p SET p.paymentStatus = CASE p.paymentStatus"
+			+ " WHEN :notStarted THEN :inProgress ELSE :completed END,"
+			+ " p.version = p.version + 1, p.updatedAt = :updatedAt"
+			+ " WHERE p.paymentId = :paymentId AND p.paymentStatus IN (:notStarted, :inProgress)")
+	int advanceStatus(
+			@Param("paymentId") final Integer paymentId,
+			@Param("notStarted") final PaymentStatus notStarted,
+			@Param("inProgress") final PaymentStatus inProgress,
+			@Param("completed") final PaymentStatus completed,
+			@Param("updatedAt") final Instant updatedAt);
 	
 }
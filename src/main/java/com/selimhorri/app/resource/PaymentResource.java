@@ -1,9 +1,17 @@
 package com.selimhorri.app.resource;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,11 +20,23 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.config.payment.PaymentProperties;
 import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.response.PaymentBatchItemResponse;
+import com.selimhorri.app.dto.response.PaymentStatusUpdateResponse;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.service.IdempotencyService;
 import com.selimhorri.app.service.PaymentService;
 
 import lombok.RequiredArgsConstructor;
@@ -28,7 +48,13 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class PaymentResource {
 
+	public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+	public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
 	private final PaymentService paymentService;
+	private final IdempotencyService idempotencyService;
+	private final ObjectMapper objectMapper;
+	private final PaymentProperties paymentProperties;
 
 	@GetMapping
 	public ResponseEntity<DtoCollectionResponse<PaymentDto>> findAll() {
@@ -36,6 +62,34 @@ public class PaymentResource {
 		return ResponseEntity.ok(new DtoCollectionResponse<>(this.paymentService.findAll()));
 	}
 
+	@GetMapping(params = "limit")
+	public ResponseEntity<DtoCursorPageResponse<PaymentDto>> findAll(
+			@RequestParam("limit") final int limit,
+			@RequestParam(name = "cursor", required = false) final String cursor) {
+		log.info("*** PaymentDto page, controller; fetch a page of payments *");
+		return ResponseEntity.ok(this.paymentService.findAll(cursor, limit));
+	}
+
+	@GetMapping(produces = APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamAll() {
+		log.info("*** PaymentDto stream, controller; stream all payments as NDJSON *");
+		// One compact JSON document per line, the shared mapper indents its output
+		final ObjectWriter objectWriter = this.objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+		final StreamingResponseBody body = outputStream -> this.paymentService.streamAll(paymentDto -> {
+			try {
+				outputStream.write(objectWriter.writeValueAsBytes(paymentDto));
+				outputStream.write('\n');
+				outputStream.flush();
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+				.body(body);
+	}
+
 	@GetMapping("/{paymentId}")
 	public ResponseEntity<PaymentDto> findById(
 			@PathVariable("paymentId") @NotBlank(message = "Input must not be blank") @Valid final String paymentId) {
@@ -43,11 +97,67 @@ public class PaymentResource {
 		return ResponseEntity.ok(this.paymentService.findById(Integer.parseInt(paymentId)));
 	}
 
+	@GetMapping("/async")
+	public DeferredResult<ResponseEntity<DtoCollectionResponse<PaymentDto>>> findAllAsync() {
+		log.info("*** PaymentDto List, controller; fetch all payments asynchronously *");
+		return this.deferred(this.paymentService.findAllAsync(), DtoCollectionResponse::new);
+	}
+
+	@GetMapping("/async/{paymentId}")
+	public DeferredResult<ResponseEntity<PaymentDto>> findByIdAsync(
+			@PathVariable("paymentId") @NotBlank(message = "Input must not be blank") @Valid final String paymentId) {
+		log.info("*** PaymentDto, resource; fetch payment by id asynchronously *");
+		return this.deferred(this.paymentService.findByIdAsync(Integer.parseInt(paymentId)), Function.identity());
+	}
+
+	@GetMapping("/by-order/{orderId}")
+	public ResponseEntity<DtoCollectionResponse<PaymentDto>> findByOrderId(
+			@PathVariable("orderId") final Integer orderId,
+			@RequestParam(name = "enrich", defaultValue = "false") final boolean enrich) {
+		log.info("*** PaymentDto List, resource; fetch payments by order id *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(
+				this.paymentService.findAllByOrderIds(List.of(orderId), enrich)));
+	}
+
+	@GetMapping(value = "/by-order", params = "orderIds")
+	public ResponseEntity<DtoCollectionResponse<PaymentDto>> findByOrderIds(
+			@RequestParam("orderIds") final List<Integer> orderIds,
+			@RequestParam(name = "enrich", defaultValue = "false") final boolean enrich) {
+		log.info("*** PaymentDto List, resource; fetch payments by order ids *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.paymentService.findAllByOrderIds(orderIds, enrich)));
+	}
+
 	@PostMapping
 	public ResponseEntity<PaymentDto> save(
+			@RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
 			@RequestBody @NotNull(message = "Input must not be NULL") @Valid final PaymentDto paymentDto) {
 		log.info("*** PaymentDto, resource; save payment *");
-		return ResponseEntity.ok(this.paymentService.save(paymentDto));
+		if (idempotencyKey == null) {
+			return ResponseEntity.ok(this.paymentService.save(paymentDto));
+		}
+		return ResponseEntity.ok(this.idempotencyService.execute(
+				idempotencyKey, paymentDto, PaymentDto.class, complete -> this.paymentService.save(paymentDto, complete)));
+	}
+
+	@PostMapping("/batch")
+	public ResponseEntity<DtoCollectionResponse<PaymentBatchItemResponse>> saveAll(
+			@RequestBody @NotNull(message = "Input must not be NULL") final List<PaymentDto> paymentDtos) {
+		log.info("*** PaymentBatchItemResponse List, resource; save payments in batch *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.paymentService.saveAll(paymentDtos)));
+	}
+
+	@PatchMapping("/status")
+	public ResponseEntity<DtoCollectionResponse<PaymentStatusUpdateResponse>> updateStatus(
+			@RequestBody @NotNull(message = "Input must not be NULL") final List<Integer> paymentIds) {
+		log.info("*** PaymentStatusUpdateResponse List, resource; advance payment statuses in bulk *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.paymentService.updateStatus(paymentIds)));
+	}
+
+	@PostMapping("/cancel")
+	public ResponseEntity<DtoCollectionResponse<PaymentStatusUpdateResponse>> cancel(
+			@RequestBody @NotNull(message = "Input must not be NULL") final List<Integer> paymentIds) {
+		log.info("*** PaymentStatusUpdateResponse List, resource; cancel payments in bulk *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.paymentService.cancel(paymentIds)));
 	}
 
 	@PatchMapping("/{paymentId}")
@@ -71,4 +181,26 @@ public class PaymentResource {
 		return ResponseEntity.ok(true);
 	}
 
+	/**
+	 * Releases the container thread until the future completes. At the timeout the request is answered with 503 and
+	 * the service future itself is cancelled: the request stops waiting and drops its order lookups not started yet.
+	 * ORDER-SERVICE calls already sent are shared with other requests through the order cache and run to completion.
+	 */
+	private <T, R> DeferredResult<ResponseEntity<R>> deferred(final CompletableFuture<T> future,
+			final Function<T, R> body) {
+		final DeferredResult<ResponseEntity<R>> deferredResult = new DeferredResult<>(
+				this.paymentProperties.getAsync().getTimeout().toMillis());
+		// Cancelling a dependent stage would leave the service future running, so the body is mapped here
+		deferredResult.onTimeout(() -> future.cancel(true));
+		future.whenComplete((result, e) -> {
+			if (e == null) {
+				deferredResult.setResult(ResponseEntity.ok(body.apply(result)));
+			}
+			else {
+				deferredResult.setErrorResult(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+			}
+		});
+		return deferredResult;
+	}
+
 }
@@ -0,0 +1,18 @@
+package com.selimhorri.app.service;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public interface IdempotencyService {
+	
+	/**
+	 * Runs the action once per key: a retry with the same key and request gets the stored response back,
+	 * the same key with a different request is rejected. The action is handed the step that completes the key and
+	 * runs it in the transaction storing its result, so no crash can leave that result behind a key still in progress.
+	 */
+	<T> T execute(final String idempotencyKey, final Object request, final Class<T> responseType,
+			final Function<Consumer<T>, T> action);
+	
+	int purgeExpired();
+	
+}
@@ -0,0 +1,16 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.selimhorri.app.dto.PaymentDto;
+
+import reactor.core.publisher.Mono;
+
+public interface OrderEnrichmentService {
+	
+	List<PaymentDto> enrichInPayment(final List<PaymentDto> paymentDtos);
+	void enrichInPayment(final List<PaymentDto> paymentDtos, final Consumer<PaymentDto> consumer);
+	Mono<List<PaymentDto>> enrichInPaymentAsync(final List<PaymentDto> paymentDtos);
+	
+}
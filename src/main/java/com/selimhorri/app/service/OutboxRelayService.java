@@ -0,0 +1,12 @@
+package com.selimhorri.app.service;
+
+public interface OutboxRelayService {
+	
+	/**
+	 * Delivers the due outbox events once.
+	 *
+	 * @return number of events delivered
+	 */
+	int relay();
+	
+}
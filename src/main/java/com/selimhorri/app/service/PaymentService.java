@@ -1,15 +1,33 @@
 package com.selimhorri.app.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.response.PaymentBatchItemResponse;
+import com.selimhorri.app.dto.response.PaymentStatusUpdateResponse;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
 
 public interface PaymentService {
 	
 	List<PaymentDto> findAll();
+	DtoCursorPageResponse<PaymentDto> findAll(final String cursor, final int limit);
+	void streamAll(final Consumer<PaymentDto> consumer);
 	PaymentDto findById(final Integer paymentId);
+	CompletableFuture<List<PaymentDto>> findAllAsync();
+	CompletableFuture<PaymentDto> findByIdAsync(final Integer paymentId);
+	List<PaymentDto> findAllByOrderIds(final Collection<Integer> orderIds, final boolean enrich);
 	PaymentDto save(final PaymentDto paymentDto);
+	/**
+	 * Runs onSaved in the transaction storing the payment, a failure there rolls the payment back.
+	 */
+	PaymentDto save(final PaymentDto paymentDto, final Consumer<PaymentDto> onSaved);
+	List<PaymentBatchItemResponse> saveAll(final List<PaymentDto> paymentDtos);
 	PaymentDto updateStatus(int paymentId);
+	List<PaymentStatusUpdateResponse> updateStatus(final List<Integer> paymentIds);
+	List<PaymentStatusUpdateResponse> cancel(final List<Integer> paymentIds);
 	void deleteById(final Integer paymentId);
 	
 }
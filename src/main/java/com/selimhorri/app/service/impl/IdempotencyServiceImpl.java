@@ -0,0 +1,198 @@
+package com.selimhorri.app.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.config.idempotency.IdempotencyProperties;
+import com.selimhorri.app.domain.IdempotencyKey;
+import com.selimhorri.app.domain.IdempotencyKeyStatus;
+import com.selimhorri.app.exception.wrapper.IdempotencyConflictException;
+import com.selimhorri.app.repository.IdempotencyKeyRepository;
+import com.selimhorri.app.service.IdempotencyService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotencyServiceImpl implements IdempotencyService {
+	
+	private final IdempotencyKeyRepository idempotencyKeyRepository;
+	private final IdempotencyProperties idempotencyProperties;
+	private final ObjectMapper objectMapper;
+	private final TransactionOperations transactionOperations;
+	
+	@Override
+	public <T> T execute(final String idempotencyKey, final Object request, final Class<T> responseType,
+			final Function<Consumer<T>, T> action) {
+		log.info("*** {}, service; run request once per idempotency key *", responseType.getSimpleName());
+		
+		if (idempotencyKey.isBlank() || idempotencyKey.length() > this.idempotencyProperties.getMaxKeyLength()) {
+			throw new IllegalArgumentException("Idempotency-Key must be 1 to "
+					+ this.idempotencyProperties.getMaxKeyLength() + " characters long");
+		}
+		final String fingerprint = this.fingerprint(request);
+		
+		// Identifies this reservation once another request took over the key, TIMESTAMP columns may keep whole seconds only
+		final Instant reservedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+		final IdempotencyKey existing = this.reserve(idempotencyKey, fingerprint, reservedAt);
+		if (existing != null) {
+			return this.replay(existing, fingerprint, responseType);
+		}
+		
+		final AtomicBoolean completed = new AtomicBoolean();
+		final T response;
+		try {
+			response = action.apply(result -> {
+				this.complete(idempotencyKey, reservedAt, result);
+				completed.set(true);
+			});
+		}
+		catch (RuntimeException e) {
+			// Nothing to replay, release the key so the client may retry
+			this.transactionOperations.executeWithoutResult(status -> this.findReserved(idempotencyKey, reservedAt)
+					.ifPresent(this.idempotencyKeyRepository::delete));
+			throw e;
+		}
+		
+		if (!completed.get()) {
+			// The action stored nothing that the key would have to commit with
+			this.transactionOperations.executeWithoutResult(status -> this.complete(idempotencyKey, reservedAt, response));
+		}
+		return response;
+	}
+	
+	@Override
+	public int purgeExpired() {
+		final Integer purged = this.transactionOperations.execute(status ->
+				this.idempotencyKeyRepository.deleteExpired(Instant.now()));
+		if (purged != null && purged > 0) {
+			log.info("Purged {} expired idempotency key(s)", purged);
+		}
+		return purged == null ? 0 : purged;
+	}
+	
+	/**
+	 * Inserts the key as IN_PROGRESS, the primary key makes the first request win a race.
+	 * An expired key, or an IN_PROGRESS one past its lease, is replaced.
+	 *
+	 * @return the live key already stored, or null when this request reserved it
+	 */
+	private IdempotencyKey reserve(final String idempotencyKey, final String fingerprint, final Instant now) {
+		try {
+			return this.transactionOperations.execute(status -> {
+				final IdempotencyKey stored = this.idempotencyKeyRepository.findById(idempotencyKey).orElse(null);
+				if (stored != null && stored.getExpiresAt().isAfter(now) && !this.isLeaseExpired(stored, now)) {
+					return stored;
+				}
+				if (stored != null) {
+					if (stored.getKeyStatus() == IdempotencyKeyStatus.IN_PROGRESS) {
+						log.warn("Taking over Idempotency-Key {} left in progress since {}",
+								idempotencyKey, stored.getCreatedAt());
+					}
+					this.idempotencyKeyRepository.delete(stored);
+					this.idempotencyKeyRepository.flush();
+				}
+				this.idempotencyKeyRepository.saveAndFlush(IdempotencyKey.builder()
+						.idempotencyKey(idempotencyKey)
+						.requestFingerprint(fingerprint)
+						.keyStatus(IdempotencyKeyStatus.IN_PROGRESS)
+						.createdAt(now)
+						.expiresAt(now.plus(this.idempotencyProperties.getTtl()))
+						.build());
+				return null;
+			});
+		}
+		catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+			throw new IdempotencyConflictException(
+					"A request with Idempotency-Key " + idempotencyKey + " is already in progress");
+		}
+	}
+	
+	private boolean isLeaseExpired(final IdempotencyKey stored, final Instant now) {
+		return stored.getKeyStatus() == IdempotencyKeyStatus.IN_PROGRESS
+				&& stored.getCreatedAt() != null
+				&& !stored.getCreatedAt().plus(this.idempotencyProperties.getInProgressTimeout()).isAfter(now);
+	}
+	
+	/**
+	 * The key as long as this request still holds it, a request that lost its lease must not touch the new one.
+	 */
+	private Optional<IdempotencyKey> findReserved(final String idempotencyKey, final Instant reservedAt) {
+		return this.idempotencyKeyRepository.findById(idempotencyKey)
+				.filter(key -> reservedAt.equals(key.getCreatedAt()));
+	}
+	
+	/**
+	 * Joins the transaction of the caller, the key commits or rolls back with what the action stored.
+	 */
+	private void complete(final String idempotencyKey, final Instant reservedAt, final Object response) {
+		final String responseBody = this.write(response);
+		this.findReserved(idempotencyKey, reservedAt)
+				.ifPresent(key -> {
+					key.setKeyStatus(IdempotencyKeyStatus.COMPLETED);
+					key.setResponseBody(responseBody);
+					this.idempotencyKeyRepository.save(key);
+				});
+	}
+	
+	private <T> T replay(final IdempotencyKey stored, final String fingerprint, final Class<T> responseType) {
+		if (!stored.getRequestFingerprint().equals(fingerprint)) {
+			throw new IllegalArgumentException(
+					"Idempotency-Key " + stored.getIdempotencyKey() + " was already used for a different request");
+		}
+		if (stored.getKeyStatus() != IdempotencyKeyStatus.COMPLETED) {
+			throw new IdempotencyConflictException(
+					"A request with Idempotency-Key " + stored.getIdempotencyKey() + " is already in progress");
+		}
+		log.info("Replaying stored response for Idempotency-Key {}", stored.getIdempotencyKey());
+		try {
+			return this.objectMapper.readValue(stored.getResponseBody(), responseType);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Stored response of Idempotency-Key " + stored.getIdempotencyKey()
+					+ " cannot be read", e);
+		}
+	}
+	
+	private String fingerprint(final Object request) {
+		try {
+			final byte[] digest = MessageDigest.getInstance("SHA-256").digest(this.write(request)
+					.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder hex = new StringBuilder(digest.length * 2);
+			for (final byte b : digest) {
+				hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return hex.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private String write(final Object value) {
+		try {
+			return this.objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT).writeValueAsString(value);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Request cannot be serialized", e);
+		}
+	}
+	
+}
@@ -0,0 +1,125 @@
+package com.selimhorri.app.service.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.budget.RequestBudget;
+import com.selimhorri.app.cache.OrderCache;
+import com.selimhorri.app.config.enrichment.EnrichmentProperties;
+import com.selimhorri.app.domain.enums.OrderStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.service.OrderEnrichmentService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderEnrichmentServiceImpl implements OrderEnrichmentService {
+
+	private final OrderCache orderCache;
+	private final EnrichmentProperties enrichmentProperties;
+
+	@Override
+	public List<PaymentDto> enrichInPayment(final List<PaymentDto> paymentDtos) {
+		log.info("*** PaymentDto List, service; enrich payments with orders IN_PAYMENT *");
+		return this.enrich(paymentDtos).block();
+	}
+
+	@Override
+	public Mono<List<PaymentDto>> enrichInPaymentAsync(final List<PaymentDto> paymentDtos) {
+		log.info("*** PaymentDto List, service; enrich payments with orders IN_PAYMENT without blocking *");
+		return this.enrich(paymentDtos);
+	}
+
+	@Override
+	public void enrichInPayment(final List<PaymentDto> paymentDtos, final Consumer<PaymentDto> consumer) {
+		log.info("*** PaymentDto stream, service; enrich payments with orders IN_PAYMENT as they complete *");
+
+		final Map<Integer, List<PaymentDto>> paymentsByOrder = new LinkedHashMap<>();
+		paymentDtos.stream()
+				.filter(p -> p.getOrderDto() != null && p.getOrderDto().getOrderId() != null)
+				.forEach(p -> paymentsByOrder
+						.computeIfAbsent(p.getOrderDto().getOrderId(), orderId -> new ArrayList<>())
+						.add(p));
+		if (paymentsByOrder.isEmpty()) {
+			return;
+		}
+
+		// Payments are handed over on the calling thread in completion order, closing the stream cancels the rest
+		try (Stream<Map.Entry<Integer, OrderDto>> completed = this.findOrdersInPayment(paymentsByOrder.keySet())
+				.toStream()) {
+			completed.forEach(entry -> {
+				for (final PaymentDto p : paymentsByOrder.get(entry.getKey())) {
+					p.setOrderDto(entry.getValue());
+					consumer.accept(p);
+				}
+			});
+		}
+	}
+
+	private Mono<List<PaymentDto>> enrich(final List<PaymentDto> paymentDtos) {
+		// One lookup per distinct order, several payments may point to the same order
+		final Set<Integer> orderIds = paymentDtos.stream()
+				.map(p -> p.getOrderDto() == null ? null : p.getOrderDto().getOrderId())
+				.filter(Objects::nonNull)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		if (orderIds.isEmpty()) {
+			return Mono.just(new ArrayList<>());
+		}
+
+		return this.findOrdersInPayment(orderIds)
+				.collectMap(Map.Entry::getKey, Map.Entry::getValue)
+				.map(ordersInPayment -> {
+					final List<PaymentDto> enriched = new ArrayList<>(paymentDtos.size());
+					for (final PaymentDto p : paymentDtos) {
+						final OrderDto orderDto = p.getOrderDto() == null ? null
+								: ordersInPayment.get(p.getOrderDto().getOrderId());
+						if (orderDto != null) {
+							p.setOrderDto(orderDto);
+							enriched.add(p);
+						}
+					}
+					return enriched;
+				});
+	}
+
+	/**
+	 * Looks the orders up with at most parallelism calls in flight and no thread held while waiting,
+	 * lookups still running at the deadline are cancelled and left out.
+	 */
+	private Flux<Map.Entry<Integer, OrderDto>> findOrdersInPayment(final Set<Integer> orderIds) {
+		return Flux.fromIterable(orderIds)
+				.flatMap(orderId -> this.orderCache.findOrStale(orderId)
+						.filter(OrderEnrichmentServiceImpl::isInPayment)
+						.map(orderDto -> Map.entry(orderId, orderDto))
+						.onErrorResume(e -> {
+							log.error("Error fetching order ID {}: {}", orderId, e.getMessage());
+							return Mono.empty();
+						}), this.enrichmentProperties.getParallelism())
+				.doOnCancel(() -> log.warn(
+						"Order enrichment deadline of {} exceeded or stream aborted, unfinished order lookups cancelled",
+						this.enrichmentProperties.getDeadline()))
+				.take(this.enrichmentProperties.getDeadline())
+				.contextWrite(RequestBudget::propagate);
+	}
+
+	private static boolean isInPayment(final OrderDto orderDto) {
+		return orderDto != null && OrderStatus.IN_PAYMENT.name().equalsIgnoreCase(orderDto.getOrderStatus());
+	}
+
+}
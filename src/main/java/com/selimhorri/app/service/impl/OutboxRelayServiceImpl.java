@@ -0,0 +1,131 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.selimhorri.app.cache.OrderCache;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.config.outbox.OutboxProperties;
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.OutboxEventStatus;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.service.OutboxRelayService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * At-least-once delivery of outbox events, in creation order per order.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxRelayServiceImpl implements OutboxRelayService {
+	
+	private static final int MAX_ERROR_LENGTH = 1024;
+	
+	private final OutboxEventRepository outboxEventRepository;
+	private final OrderClient orderClient;
+	private final OrderCache orderCache;
+	private final OutboxProperties outboxProperties;
+	private final TransactionOperations transactionOperations;
+	
+	@Override
+	public int relay() {
+		
+		// Claiming is a short transaction of its own, no DB connection is held while ORDER-SERVICE answers
+		final List<OutboxEvent> claimed = this.transactionOperations.execute(status -> this.claim(Instant.now()));
+		if (claimed == null || claimed.isEmpty()) {
+			return 0;
+		}
+		log.info("*** Integer, service; relay {} outbox event(s) *", claimed.size());
+		
+		final List<Map.Entry<OutboxEvent, Optional<Throwable>>> results = Flux.fromIterable(claimed)
+				.flatMap(event -> this.deliver(event)
+						.thenReturn(Optional.<Throwable>empty())
+						.onErrorResume(e -> Mono.just(Optional.of(e)))
+						.map(error -> Map.entry(event, error)), this.outboxProperties.getConcurrency())
+				.collectList()
+				.block();
+		
+		this.transactionOperations.executeWithoutResult(status -> this.complete(results, Instant.now()));
+		return (int) results.stream()
+				.filter(result -> result.getValue().isEmpty())
+				.count();
+	}
+	
+	private List<OutboxEvent> claim(final Instant now) {
+		final List<OutboxEvent> claimed = this.outboxEventRepository.findDueForUpdate(
+				OutboxEventStatus.PENDING, now, PageRequest.of(0, this.outboxProperties.getBatchSize()));
+		claimed.forEach(event -> event.setNextAttemptAt(now.plus(this.outboxProperties.getClaimTimeout())));
+		return claimed;
+	}
+	
+	private Mono<Void> deliver(final OutboxEvent event) {
+		switch (event.getEventType()) {
+			case ORDER_STATUS_PATCH:
+				return this.orderClient.updateStatus(event.getOrderId())
+						.doFinally(signal -> this.orderCache.invalidate(event.getOrderId()));
+			default:
+				return Mono.error(new IllegalStateException("Unknown outbox event type: " + event.getEventType()));
+		}
+	}
+	
+	private void complete(final List<Map.Entry<OutboxEvent, Optional<Throwable>>> results, final Instant now) {
+		final List<Integer> deliveredIds = results.stream()
+				.filter(result -> result.getValue().isEmpty())
+				.map(result -> result.getKey().getOutboxEventId())
+				.collect(Collectors.toList());
+		if (!deliveredIds.isEmpty()) {
+			this.outboxEventRepository.deleteAllByIdInBatch(deliveredIds);
+		}
+		
+		results.stream()
+				.filter(result -> result.getValue().isPresent())
+				.forEach(result -> this.outboxEventRepository.findById(result.getKey().getOutboxEventId())
+						.ifPresent(event -> this.reschedule(event, result.getValue().get(), now)));
+	}
+	
+	private void reschedule(final OutboxEvent event, final Throwable error, final Instant now) {
+		event.setAttempts(event.getAttempts() + 1);
+		event.setLastError(truncate(String.valueOf(error.getMessage())));
+		
+		if (event.getAttempts() >= this.outboxProperties.getMaxAttempts()) {
+			event.setEventStatus(OutboxEventStatus.FAILED);
+			log.error("Giving up on outbox event ID {} ({} for order ID {}) after {} attempt(s): {}",
+					event.getOutboxEventId(), event.getEventType(), event.getOrderId(), event.getAttempts(),
+					error.getMessage());
+			return;
+		}
+		
+		final Duration backoff = this.backoff(event.getAttempts());
+		event.setNextAttemptAt(now.plus(backoff));
+		log.warn("Outbox event ID {} ({} for order ID {}) failed on attempt {}, retrying in {}: {}",
+				event.getOutboxEventId(), event.getEventType(), event.getOrderId(), event.getAttempts(), backoff,
+				error.getMessage());
+	}
+	
+	private Duration backoff(final int attempts) {
+		Duration backoff = this.outboxProperties.getInitialBackoff();
+		for (int i = 1; i < attempts && backoff.compareTo(this.outboxProperties.getMaxBackoff()) < 0; i++) {
+			backoff = backoff.multipliedBy(2);
+		}
+		return backoff.compareTo(this.outboxProperties.getMaxBackoff()) < 0 ? backoff
+				: this.outboxProperties.getMaxBackoff();
+	}
+	
+	private static String truncate(final String message) {
+		return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+	}
+	
+}
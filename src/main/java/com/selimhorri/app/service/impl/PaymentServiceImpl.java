@@ -1,30 +1,59 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
-import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.cache.OrderCache;
+import com.selimhorri.app.config.payment.PaymentProperties;
+import com.selimhorri.app.config.transaction.TransactionConfig;
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.OutboxEventStatus;
+import com.selimhorri.app.domain.OutboxEventType;
 import com.selimhorri.app.domain.Payment;
 import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.domain.PaymentStatusTransition;
 import com.selimhorri.app.domain.enums.OrderStatus;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.response.PaymentBatchItemResponse;
+import com.selimhorri.app.dto.response.PaymentStatusUpdateResponse;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.exception.wrapper.PaymentConflictException;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 import com.selimhorri.app.exception.wrapper.PaymentServiceException;
+import com.selimhorri.app.helper.PaymentCursorHelper;
 import com.selimhorri.app.helper.PaymentMappingHelper;
+import com.selimhorri.app.repository.OutboxEventRepository;
 import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.OrderEnrichmentService;
 import com.selimhorri.app.service.PaymentService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 @Service
 @Transactional
@@ -33,52 +62,98 @@ import lombok.extern.slf4j.Slf4j;
 public class PaymentServiceImpl implements PaymentService {
 
 	private final PaymentRepository paymentRepository;
-	private final RestTemplate restTemplate;
+	private final OrderCache orderCache;
+	private final OrderEnrichmentService orderEnrichmentService;
+	private final PaymentProperties paymentProperties;
+	private final OutboxEventRepository outboxEventRepository;
+	private final TransactionOperations transactionOperations;
+	@Qualifier(TransactionConfig.READ_ONLY)
+	private final TransactionOperations readOnlyTransactionOperations;
+	private final Scheduler paymentCompletionScheduler;
 
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public List<PaymentDto> findAll() {
 		log.info("*** PaymentDto List, service; fetch payments with order status IN_PAYMENT *");
 
-		return this.paymentRepository.findAll()
-				.stream()
-				.map(PaymentMappingHelper::map)
-				.filter(p -> {
-					try {
-						OrderDto orderDto = this.restTemplate.getForObject(
-								AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/"
-										+ p.getOrderDto().getOrderId(),
-								OrderDto.class);
-
-						// Verificar si la orden tiene estado IN_PAYMENT
-						boolean isInPayment = "IN_PAYMENT".equalsIgnoreCase(orderDto.getOrderStatus());
-						if (isInPayment) {
-							p.setOrderDto(orderDto);
-							return true;
-						}
-						return false;
-
-					} catch (Exception e) {
-						log.error("Error fetching order for payment ID {}: {}", p.getPaymentId(), e.getMessage());
-						return false;
-					}
-				})
-				.distinct()
-				.collect(Collectors.toUnmodifiableList());
+		if (this.paymentProperties.getCandidateStatuses().isEmpty()) {
+			return List.of();
+		}
+
+		// Only payments that can still belong to an order IN_PAYMENT are loaded and enriched,
+		// the read is a read-only transaction of its own so no DB connection is held while ORDER-SERVICE answers
+		final List<PaymentDto> paymentDtos = this.readOnlyTransactionOperations.execute(status -> this.paymentRepository
+				.findCandidates(this.paymentProperties.getCandidateStatuses()));
+
+		return List.copyOf(this.orderEnrichmentService.enrichInPayment(paymentDtos));
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public DtoCursorPageResponse<PaymentDto> findAll(final String cursor, final int limit) {
+		log.info("*** PaymentDto page, service; fetch a page of payments with order status IN_PAYMENT *");
+
+		if (limit < 1 || limit > this.paymentProperties.getMaxPageLimit()) {
+			throw new IllegalArgumentException(
+					"Limit must be between 1 and " + this.paymentProperties.getMaxPageLimit());
+		}
+		final Integer afterPaymentId = (cursor == null || cursor.isBlank()) ? 0 : PaymentCursorHelper.decode(cursor);
+
+		if (this.paymentProperties.getCandidateStatuses().isEmpty()) {
+			return new DtoCursorPageResponse<>(List.of(), null);
+		}
+
+		// Keyset scan: seek past the cursor on the primary key, never an OFFSET
+		final List<PaymentDto> payments = this.readOnlyTransactionOperations.execute(status -> this.paymentRepository
+				.findCandidatesAfter(this.paymentProperties.getCandidateStatuses(), afterPaymentId, PageRequest.of(0, limit)));
+		final List<PaymentDto> paymentDtos = this.orderEnrichmentService.enrichInPayment(payments);
+
+		// The cursor follows the last scanned row, a page may hold fewer than limit payments once filtered
+		final String next = payments.size() < limit ? null
+				: PaymentCursorHelper.encode(payments.get(payments.size() - 1).getPaymentId());
+
+		return new DtoCursorPageResponse<>(List.copyOf(paymentDtos), next);
 	}
 
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void streamAll(final Consumer<PaymentDto> consumer) {
+		log.info("*** PaymentDto stream, service; stream payments with order status IN_PAYMENT *");
+
+		if (this.paymentProperties.getCandidateStatuses().isEmpty()) {
+			return;
+		}
+
+		// No surrounding transaction, each batch is read in a read-only transaction of its own so the heap stays flat
+		// and no DB connection is held while the batch is enriched
+		final int batchSize = this.paymentProperties.getStreamBatchSize();
+		Integer afterPaymentId = 0;
+		List<PaymentDto> batch;
+		do {
+			final Integer after = afterPaymentId;
+			batch = this.readOnlyTransactionOperations.execute(status -> this.paymentRepository.findCandidatesAfter(
+					this.paymentProperties.getCandidateStatuses(), after, PageRequest.of(0, batchSize)));
+			if (batch.isEmpty()) {
+				return;
+			}
+			afterPaymentId = batch.get(batch.size() - 1).getPaymentId();
+			this.orderEnrichmentService.enrichInPayment(batch, consumer);
+		} while (batch.size() == batchSize);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public PaymentDto findById(final Integer paymentId) {
 		log.info("*** PaymentDto, service; fetch payment by id *");
-		PaymentDto paymentDto = this.paymentRepository.findById(paymentId)
-				.map(PaymentMappingHelper::map)
+		PaymentDto paymentDto = this.readOnlyTransactionOperations.execute(status ->
+				this.paymentRepository.findDtoById(paymentId))
 				.orElseThrow(
 						() -> new PaymentServiceException(String.format("Payment with id: %d not found", paymentId)));
 
 		try {
-			OrderDto orderDto = this.restTemplate.getForObject(
-					AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/"
-							+ paymentDto.getOrderDto().getOrderId(),
-					OrderDto.class);
+			OrderDto orderDto = this.orderCache.getOrStale(paymentDto.getOrderDto().getOrderId())
+					.orElseThrow(() -> new PaymentServiceException(
+							"Order with ID " + paymentDto.getOrderDto().getOrderId() + " not found"));
 			paymentDto.setOrderDto(orderDto);
 			return paymentDto;
 		} catch (Exception e) {
@@ -88,88 +163,276 @@ public class PaymentServiceImpl implements PaymentService {
 	}
 
 	@Override
-	@Transactional
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public CompletableFuture<List<PaymentDto>> findAllAsync() {
+		log.info("*** PaymentDto List, service; fetch payments with order status IN_PAYMENT asynchronously *");
+
+		if (this.paymentProperties.getCandidateStatuses().isEmpty()) {
+			return CompletableFuture.completedFuture(List.of());
+		}
+
+		// The rows are read on the caller thread, only the order lookups are waited for asynchronously
+		final List<PaymentDto> paymentDtos = this.readOnlyTransactionOperations.execute(status -> this.paymentRepository
+				.findCandidates(this.paymentProperties.getCandidateStatuses()));
+
+		return this.orderEnrichmentService.enrichInPaymentAsync(paymentDtos)
+				.publishOn(this.paymentCompletionScheduler)
+				.<List<PaymentDto>>map(List::copyOf)
+				.toFuture();
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public CompletableFuture<PaymentDto> findByIdAsync(final Integer paymentId) {
+		log.info("*** PaymentDto, service; fetch payment by id asynchronously *");
+		final PaymentDto paymentDto = this.readOnlyTransactionOperations.execute(status ->
+				this.paymentRepository.findDtoById(paymentId))
+				.orElseThrow(
+						() -> new PaymentServiceException(String.format("Payment with id: %d not found", paymentId)));
+
+		final Integer orderId = paymentDto.getOrderDto().getOrderId();
+		return this.orderCache.findOrStale(orderId)
+				.switchIfEmpty(Mono.error(() -> new PaymentServiceException("Order with ID " + orderId + " not found")))
+				.onErrorMap(e -> {
+					log.error("Error fetching order for payment ID {}: {}", paymentId, e.getMessage());
+					return new PaymentServiceException("Could not fetch order information for payment");
+				})
+				.publishOn(this.paymentCompletionScheduler)
+				.map(orderDto -> {
+					paymentDto.setOrderDto(orderDto);
+					return paymentDto;
+				})
+				.toFuture();
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<PaymentDto> findAllByOrderIds(final Collection<Integer> orderIds, final boolean enrich) {
+		log.info("*** PaymentDto List, service; fetch payments by order ids *");
+
+		final Set<Integer> distinctIds = orderIds.stream()
+				.filter(Objects::nonNull)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		if (distinctIds.size() > this.paymentProperties.getBatchMaxSize()) {
+			throw new IllegalArgumentException(
+					"At most " + this.paymentProperties.getBatchMaxSize() + " order ids can be looked up at once");
+		}
+		if (distinctIds.isEmpty()) {
+			return List.of();
+		}
+
+		final List<PaymentDto> paymentDtos = this.readOnlyTransactionOperations.execute(status ->
+				this.paymentRepository.findAllByOrderIdIn(distinctIds));
+		if (!enrich || paymentDtos.isEmpty()) {
+			return paymentDtos;
+		}
+
+		// Unknown orders and failed lookups keep the bare order id rather than failing the whole read
+		final Map<Integer, Optional<OrderDto>> orders = this.orderCache.findAllOrStale(
+				paymentDtos.stream()
+						.map(p -> p.getOrderDto().getOrderId())
+						.collect(Collectors.toCollection(LinkedHashSet::new)),
+				this.paymentProperties.getBatchOrderLookupParallelism())
+				.block();
+		paymentDtos.forEach(p -> orders.getOrDefault(p.getOrderDto().getOrderId(), Optional.empty())
+				.ifPresent(p::setOrderDto));
+		return paymentDtos;
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public PaymentDto save(final PaymentDto paymentDto) {
+		return this.save(paymentDto, savedPayment -> { });
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public PaymentDto save(final PaymentDto paymentDto, final Consumer<PaymentDto> onSaved) {
 		log.info("*** PaymentDto, service; save payment *");
 
 		// Verificar que la orden existe antes de guardar el pago
 		if (paymentDto.getOrderDto() == null || paymentDto.getOrderDto().getOrderId() == null) {
 			throw new IllegalArgumentException("Order ID must not be null");
 		}
+		final Integer orderId = paymentDto.getOrderDto().getOrderId();
 
 		try {
 			// 1. Verificar existencia de la orden
-			OrderDto orderDto = this.restTemplate.getForObject(
-					AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/"
-							+ paymentDto.getOrderDto().getOrderId(),
-					OrderDto.class);
+			// Runs outside any transaction, so a slow ORDER-SERVICE never holds a DB connection. Read fresh: another
+			// instance may have delivered the status PATCH while this one still caches the order as ORDERED
+			OrderDto orderDto = this.orderCache.getFresh(orderId)
+					.orElse(null);
 
 			if (orderDto == null) {
-				throw new PaymentServiceException(
-						"Order with ID " + paymentDto.getOrderDto().getOrderId() + " not found");
+				throw new PaymentServiceException("Order with ID " + orderId + " not found");
 			}
-			if (!orderDto.getOrderStatus().equals(OrderStatus.ORDERED.name())) {
+			// A pending status PATCH means a payment was already started, ORDER-SERVICE just does not know it yet
+			if (!orderDto.getOrderStatus().equals(OrderStatus.ORDERED.name())
+					|| this.outboxEventRepository.existsByOrderIdAndEventTypeAndEventStatus(
+							orderId, OutboxEventType.ORDER_STATUS_PATCH, OutboxEventStatus.PENDING)) {
 				throw new IllegalArgumentException(
 						"Cannot start the payment of an order that is not ordered or already in a payment process");
 			}
+		} catch (HttpClientErrorException.NotFound ex) {
+			throw new PaymentServiceException("Order with ID " + orderId + " not found");
+		} catch (RestClientException ex) {
+			throw new PaymentServiceException("Error while processing payment: " + ex.getMessage());
+		}
+
+		return this.transactionOperations.execute(status -> {
 			// 2. Guardar el pago
-			PaymentDto savedPayment = PaymentMappingHelper.map(
+			final PaymentDto savedPayment = PaymentMappingHelper.map(
 					this.paymentRepository.save(PaymentMappingHelper.mapForPayment(paymentDto)));
+			// 3. Actualizar estado de la orden (PATCH): recorded in the same transaction, the outbox relay
+			// delivers it once this commit is done
+			this.outboxEventRepository.save(OutboxEvent.orderStatusPatch(orderId));
+			onSaved.accept(savedPayment);
+			return savedPayment;
+		});
+	}
 
-			// 3. Actualizar estado de la orden (PATCH)
-			String patchUrl = AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/"
-					+ paymentDto.getOrderDto().getOrderId() + "/status";
-
-			try {
-				this.restTemplate.patchForObject(
-						patchUrl,
-						null,
-						Void.class);
-				log.info("Order status updated successfully for order ID: {}", paymentDto.getOrderDto().getOrderId());
-			} catch (RestClientException e) {
-				log.error("Failed to update order status for order ID: {}", paymentDto.getOrderDto().getOrderId(), e);
-				// Puedes decidir si lanzar excepción o continuar
-				throw new PaymentServiceException("Payment saved but failed to update order status: " + e.getMessage());
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<PaymentBatchItemResponse> saveAll(final List<PaymentDto> paymentDtos) {
+		log.info("*** PaymentBatchItemResponse List, service; save payments in batch *");
+
+		if (paymentDtos.size() > this.paymentProperties.getBatchMaxSize()) {
+			throw new IllegalArgumentException(
+					"A batch must hold at most " + this.paymentProperties.getBatchMaxSize() + " payments");
+		}
+
+		final PaymentBatchItemResponse[] results = new PaymentBatchItemResponse[paymentDtos.size()];
+		// The first item of an order wins, a second payment for the same order would fail the ORDERED check anyway
+		final Map<Integer, Integer> indexByOrderId = new LinkedHashMap<>();
+		for (int i = 0; i < paymentDtos.size(); i++) {
+			final PaymentDto paymentDto = paymentDtos.get(i);
+			if (paymentDto == null || paymentDto.getOrderDto() == null || paymentDto.getOrderDto().getOrderId() == null) {
+				results[i] = PaymentBatchItemResponse.rejected(i, "Order ID must not be null");
 			}
+			else if (indexByOrderId.putIfAbsent(paymentDto.getOrderDto().getOrderId(), i) != null) {
+				results[i] = PaymentBatchItemResponse.rejected(i,
+						"Duplicate order ID " + paymentDto.getOrderDto().getOrderId() + " in batch");
+			}
+		}
+		if (indexByOrderId.isEmpty()) {
+			return Arrays.asList(results);
+		}
 
-			return savedPayment;
+		// One bulk pass: the fresh order lookups fan out together and pending status PATCHes come from one query
+		final Map<Integer, Optional<OrderDto>> orders = this.orderCache.findAllFresh(indexByOrderId.keySet(),
+				this.paymentProperties.getBatchOrderLookupParallelism()).block();
+		final Set<Integer> pendingOrderIds = this.outboxEventRepository.findOrderIdsWithEvent(
+				indexByOrderId.keySet(), OutboxEventType.ORDER_STATUS_PATCH, OutboxEventStatus.PENDING);
 
-		} catch (HttpClientErrorException.NotFound ex) {
-			throw new PaymentServiceException("Order with ID " + paymentDto.getOrderDto().getOrderId() + " not found");
-		} catch (RestClientException ex) {
-			throw new PaymentServiceException("Error while processing payment: " + ex.getMessage());
+		final List<Integer> acceptedIndexes = new ArrayList<>(indexByOrderId.size());
+		indexByOrderId.forEach((orderId, index) -> {
+			final Optional<OrderDto> orderDto = orders.get(orderId);
+			if (orderDto == null) {
+				results[index] = PaymentBatchItemResponse.rejected(index, "Could not fetch order information");
+			}
+			else if (orderDto.isEmpty()) {
+				results[index] = PaymentBatchItemResponse.rejected(index, "Order with ID " + orderId + " not found");
+			}
+			else if (!OrderStatus.ORDERED.name().equals(orderDto.get().getOrderStatus())
+					|| pendingOrderIds.contains(orderId)) {
+				results[index] = PaymentBatchItemResponse.rejected(index,
+						"Cannot start the payment of an order that is not ordered or already in a payment process");
+			}
+			else {
+				acceptedIndexes.add(index);
+			}
+		});
+		if (acceptedIndexes.isEmpty()) {
+			return Arrays.asList(results);
 		}
+
+		// Payments and their outbox events go in as two JDBC batches of one transaction
+		this.transactionOperations.executeWithoutResult(status -> {
+			final List<Payment> payments = this.paymentRepository.insertAll(acceptedIndexes.stream()
+					.map(index -> PaymentMappingHelper.mapForPayment(paymentDtos.get(index)))
+					.collect(Collectors.toList()));
+			this.outboxEventRepository.insertAll(payments.stream()
+					.map(payment -> OutboxEvent.orderStatusPatch(payment.getOrderId()))
+					.collect(Collectors.toList()));
+			for (int i = 0; i < payments.size(); i++) {
+				final int index = acceptedIndexes.get(i);
+				results[index] = PaymentBatchItemResponse.created(index, PaymentMappingHelper.map(payments.get(i)));
+			}
+		});
+
+		return Arrays.asList(results);
 	}
 
 	@Override
 	public PaymentDto updateStatus(final int paymentId) {
 		log.info("*** PaymentDto, service; update payment status *");
 
-		return this.paymentRepository.findById(paymentId)
-				.map(payment -> {
-					PaymentStatus currentStatus = payment.getPaymentStatus();
-					PaymentStatus newStatus;
-					switch (currentStatus) {
-						case NOT_STARTED:
-							newStatus = PaymentStatus.IN_PROGRESS;
-							break;
-						case IN_PROGRESS:
-							newStatus = PaymentStatus.COMPLETED;
-							break;
-						case COMPLETED:
-							throw new IllegalStateException(
-									"Payment is already COMPLETED and cannot be updated further");
-						case CANCELED:
-							throw new IllegalStateException("Payment is CANCELED and cannot be updated");
-						default:
-							throw new IllegalStateException("Unknown payment status: " + currentStatus);
-					}
-
-					payment.setPaymentStatus(newStatus);
-
-					return PaymentMappingHelper.map(this.paymentRepository.save(payment));
-				})
+		// The status-guarded UPDATE goes first, the row is only read afterwards to answer with it or explain a miss
+		final int updated = this.paymentRepository.advanceStatus(paymentId, Instant.now());
+		final Payment payment = this.paymentRepository.findById(paymentId)
 				.orElseThrow(() -> new PaymentNotFoundException("Payment with id: " + paymentId + " not found"));
+		if (updated == 0) {
+			throw new IllegalStateException(PaymentStatusTransition.ADVANCE.rejectionOf(payment.getPaymentStatus()));
+		}
+		return PaymentMappingHelper.map(payment);
+	}
+
+	@Override
+	public List<PaymentStatusUpdateResponse> updateStatus(final List<Integer> paymentIds) {
+		log.info("*** PaymentStatusUpdateResponse List, service; advance payment statuses in bulk *");
+		return this.transition(paymentIds, PaymentStatusTransition.ADVANCE);
+	}
+
+	@Override
+	public List<PaymentStatusUpdateResponse> cancel(final List<Integer> paymentIds) {
+		log.info("*** PaymentStatusUpdateResponse List, service; cancel payments in bulk *");
+		return this.transition(paymentIds, PaymentStatusTransition.CANCEL);
+	}
+
+	/**
+	 * One locking SELECT plus one conditional UPDATE per source status, whatever the number of IDs.
+	 */
+	private List<PaymentStatusUpdateResponse> transition(final List<Integer> paymentIds,
+			final PaymentStatusTransition transition) {
+		final Set<Integer> distinctIds = paymentIds.stream()
+				.filter(Objects::nonNull)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		if (distinctIds.size() > this.paymentProperties.getBatchMaxSize()) {
+			throw new IllegalArgumentException(
+					"A batch must hold at most " + this.paymentProperties.getBatchMaxSize() + " payments");
+		}
+		if (distinctIds.isEmpty()) {
+			return List.of();
+		}
+
+		final Map<Integer, PaymentStatus> currentStatuses = this.paymentRepository.findAllByIdForUpdate(distinctIds)
+				.stream()
+				.collect(Collectors.toMap(Payment::getPaymentId, Payment::getPaymentStatus));
+
+		final Map<PaymentStatus, List<Integer>> idsBySource = new EnumMap<>(PaymentStatus.class);
+		final List<PaymentStatusUpdateResponse> results = new ArrayList<>(distinctIds.size());
+		for (final Integer paymentId : distinctIds) {
+			if (!currentStatuses.containsKey(paymentId)) {
+				results.add(PaymentStatusUpdateResponse.notFound(paymentId));
+				continue;
+			}
+			final PaymentStatus source = currentStatuses.get(paymentId);
+			final Optional<PaymentStatus> target = transition.targetOf(source);
+			if (target.isPresent()) {
+				idsBySource.computeIfAbsent(source, status -> new ArrayList<>()).add(paymentId);
+				results.add(PaymentStatusUpdateResponse.updated(paymentId, target.get()));
+			}
+			else {
+				results.add(PaymentStatusUpdateResponse.rejected(paymentId, source, transition.rejectionOf(source)));
+			}
+		}
+
+		// Each UPDATE only sees the IDs read in its source status, so a payment never moves twice
+		final Instant now = Instant.now();
+		idsBySource.forEach((source, ids) -> this.paymentRepository.updateStatus(
+				ids, source, transition.targetOf(source).orElseThrow(), now));
+
+		return results;
 	}
 
 	@Override
@@ -177,21 +440,38 @@ public class PaymentServiceImpl implements PaymentService {
 	public void deleteById(final Integer paymentId) {
 		log.info("*** Void, service; soft delete (cancel) payment by id *");
 
-		Payment payment = this.paymentRepository.findById(paymentId)
+		final Payment payment = this.paymentRepository.findById(paymentId)
 				.orElseThrow(() -> new IllegalArgumentException("Payment with id " + paymentId + " not found"));
+		final PaymentStatus target = PaymentStatusTransition.CANCEL.targetOf(payment.getPaymentStatus())
+				.orElseThrow(() -> {
+					log.info("Payment with id {} is {} and cannot be canceled", paymentId, payment.getPaymentStatus());
+					return new IllegalArgumentException(
+							PaymentStatusTransition.CANCEL.rejectionOf(payment.getPaymentStatus()));
+				});
 
-		if (payment.getPaymentStatus() == PaymentStatus.COMPLETED) {
-			log.info("Payment with id {} is COMPLETED and cannot be canceled", paymentId);
-			throw new IllegalArgumentException("Cannot cancel a completed payment");
-		}
+		this.compareAndSetStatus(payment, target);
+		log.info("Payment with id {} has been canceled", paymentId);
+	}
 
-		if (payment.getPaymentStatus() == PaymentStatus.CANCELED) {
-			log.info("Payment with id {} is already CANCELED", paymentId);
-			throw new IllegalArgumentException("Payment is already canceled");
+	/**
+	 * Moves the payment with a single UPDATE guarded by the status it was read in, so that a concurrent
+	 * transition is reported as a conflict instead of being overwritten.
+	 */
+	private Payment compareAndSetStatus(final Payment payment, final PaymentStatus target) {
+		final Instant now = Instant.now();
+		final int updated = this.paymentRepository.updateStatus(
+				List.of(payment.getPaymentId()), payment.getPaymentStatus(), target, now);
+		if (updated == 0) {
+			throw new PaymentConflictException("Payment with id: " + payment.getPaymentId()
+					+ " is no longer " + payment.getPaymentStatus() + ", it was changed concurrently");
 		}
 
-		payment.setPaymentStatus(PaymentStatus.CANCELED);
-		this.paymentRepository.save(payment);
-		log.info("Payment with id {} has been canceled", paymentId);
+		// The UPDATE cleared the persistence context, the entity is detached and only mirrors the new row
+		payment.setPaymentStatus(target);
+		payment.setUpdatedAt(now);
+		if (payment.getVersion() != null) {
+			payment.setVersion(payment.getVersion() + 1);
+		}
+		return payment;
 	}
 }
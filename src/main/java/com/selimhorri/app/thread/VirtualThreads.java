@@ -0,0 +1,77 @@
+package com.selimhorri.app.thread;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual threads looked up reflectively, so the service still builds and runs on Java 11 and only uses them
+ * when started on Java 21 or later.
+ */
+public final class VirtualThreads {
+	
+	private static final Method OF_VIRTUAL;
+	private static final Method NAME;
+	private static final Method FACTORY;
+	private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+	private static final String UNSUPPORTED_REASON;
+	
+	static {
+		Method ofVirtual = null;
+		Method name = null;
+		Method factory = null;
+		Method newThreadPerTaskExecutor = null;
+		String unsupportedReason = null;
+		try {
+			ofVirtual = Thread.class.getMethod("ofVirtual");
+			name = Class.forName("java.lang.Thread$Builder").getMethod("name", String.class, long.class);
+			factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+			newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			// Present but a preview feature before Java 21, this throws unless preview features are enabled
+			ofVirtual.invoke(null);
+		}
+		catch (final ReflectiveOperationException | RuntimeException e) {
+			unsupportedReason = "virtual threads need Java 21 or later, running on Java " + Runtime.version();
+		}
+		OF_VIRTUAL = ofVirtual;
+		NAME = name;
+		FACTORY = factory;
+		NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+		UNSUPPORTED_REASON = unsupportedReason;
+	}
+	
+	private VirtualThreads() {
+		
+	}
+	
+	public static boolean isSupported() {
+		return UNSUPPORTED_REASON == null;
+	}
+	
+	/**
+	 * @return why virtual threads cannot be used, or null when they can
+	 */
+	public static String unsupportedReason() {
+		return UNSUPPORTED_REASON;
+	}
+	
+	/**
+	 * Starts a new virtual thread per task, threads are named prefix followed by a counter.
+	 * 
+	 * @throws IllegalStateException when virtual threads are not supported
+	 */
+	public static ExecutorService newThreadPerTaskExecutor(final String namePrefix) {
+		if (!isSupported()) {
+			throw new IllegalStateException(UNSUPPORTED_REASON);
+		}
+		try {
+			final Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+			return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, FACTORY.invoke(builder));
+		}
+		catch (final ReflectiveOperationException e) {
+			throw new IllegalStateException("Unable to create a virtual thread executor", e);
+		}
+	}
+	
+}
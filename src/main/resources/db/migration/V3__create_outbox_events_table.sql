@@ -0,0 +1,13 @@
+CREATE TABLE outbox_events (
+  outbox_event_id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  order_id INT NOT NULL,
+  event_type VARCHAR(64) NOT NULL,
+  event_status VARCHAR(32) NOT NULL,
+  attempts INT NOT NULL DEFAULT 0,
+  next_attempt_at TIMESTAMP NOT NULL,
+  last_error VARCHAR(1024),
+  created_at TIMESTAMP NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_outbox_events_status_id ON outbox_events (event_status, outbox_event_id);
+CREATE INDEX idx_outbox_events_order_id ON outbox_events (order_id);
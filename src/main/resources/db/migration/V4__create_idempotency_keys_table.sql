@@ -0,0 +1,10 @@
+CREATE TABLE idempotency_keys (
+  idempotency_key VARCHAR(255) NOT NULL PRIMARY KEY,
+  request_fingerprint VARCHAR(64) NOT NULL,
+  key_status VARCHAR(32) NOT NULL,
+  response_body VARCHAR(8000),
+  created_at TIMESTAMP NULL DEFAULT CURRENT_TIMESTAMP,
+  expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
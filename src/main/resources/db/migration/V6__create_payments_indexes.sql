@@ -0,0 +1,2 @@
+CREATE INDEX idx_payments_order_id_status ON payments (order_id, payment_status);
+CREATE INDEX idx_payments_status_payment_id ON payments (payment_status, payment_id, order_id, is_payed);
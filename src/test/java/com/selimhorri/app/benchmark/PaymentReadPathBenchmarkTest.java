@@ -0,0 +1,139 @@
+package com.selimhorri.app.benchmark;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.helper.PaymentMappingHelper;
+import com.selimhorri.app.repository.PaymentRepository;
+
+/**
+ * Compares the entity read path (managed Payment entities in a read-write transaction, then mapped) with the
+ * projection read path (rows read into PaymentDto in a read-only transaction). Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentReadPathBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 50;
+    private static final EnumSet<PaymentStatus> OPEN_STATUSES = EnumSet.of(PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAllInBatch();
+        paymentRepository.insertAll(IntStream.rangeClosed(1, ROWS)
+                .mapToObj(i -> Payment.builder()
+                        .orderId(i)
+                        .isPayed(false)
+                        .paymentStatus(i % 4 == 0 ? PaymentStatus.COMPLETED : PaymentStatus.IN_PROGRESS)
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAllInBatch();
+    }
+
+    private List<PaymentDto> entityPath() {
+        return new TransactionTemplate(transactionManager).execute(status -> entityManager
+                .createQuery("SELECT p FROM Payment p"
+                        + " WHERE p.paymentStatus IN :paymentStatuses AND p.orderId IS NOT NULL"
+                        + " ORDER BY p.paymentId", Payment.class)
+                .setParameter("paymentStatuses", OPEN_STATUSES)
+                .getResultList()
+                .stream()
+                .map(PaymentMappingHelper::map)
+                .collect(Collectors.toList()));
+    }
+
+    private List<PaymentDto> projectionPath() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> paymentRepository.findCandidates(OPEN_STATUSES));
+    }
+
+    @Test
+    void projectionReadPath_ShouldMatchTheEntityPathAndReportItsCost() {
+        // Given
+        assertEquals(entityPath(), projectionPath());
+
+        // When
+        Measurement entity = measure(this::entityPath);
+        Measurement projection = measure(this::projectionPath);
+
+        // Then
+        System.out.printf("payments read path over %d rows, %d iterations%n", ROWS, MEASURED_ITERATIONS);
+        System.out.printf("  entity     : %8.3f ms/op %12d B/op%n", entity.millisPerOp(), entity.bytesPerOp());
+        System.out.printf("  projection : %8.3f ms/op %12d B/op%n", projection.millisPerOp(), projection.bytesPerOp());
+        assertTrue(projection.bytesPerOp() > 0 && entity.bytesPerOp() > 0);
+    }
+
+    private static Measurement measure(Supplier<List<PaymentDto>> readPath) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            readPath.get();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            readPath.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Measurement(elapsed / 1_000_000.0 / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+    }
+
+    private static final class Measurement {
+
+        private final double millisPerOp;
+        private final long bytesPerOp;
+
+        Measurement(double millisPerOp, long bytesPerOp) {
+            this.millisPerOp = millisPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        double millisPerOp() {
+            return millisPerOp;
+        }
+
+        long bytesPerOp() {
+            return bytesPerOp;
+        }
+    }
+}
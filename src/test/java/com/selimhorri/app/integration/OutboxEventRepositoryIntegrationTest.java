@@ -0,0 +1,92 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.OutboxEventStatus;
+import com.selimhorri.app.domain.OutboxEventType;
+import com.selimhorri.app.repository.OutboxEventRepository;
+
+@Tag("integration")
+@DataJpaTest
+class OutboxEventRepositoryIntegrationTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void findDueForUpdate_ShouldReturnTheOldestPendingEventOfEachOrderInCreationOrder() {
+        // Given
+        OutboxEvent first = outboxEventRepository.save(OutboxEvent.orderStatusPatch(2));
+        OutboxEvent failed = OutboxEvent.orderStatusPatch(1);
+        failed.setEventStatus(OutboxEventStatus.FAILED);
+        outboxEventRepository.save(failed);
+        OutboxEvent second = outboxEventRepository.save(OutboxEvent.orderStatusPatch(1));
+        outboxEventRepository.save(OutboxEvent.orderStatusPatch(2));
+
+        // When
+        List<OutboxEvent> result = outboxEventRepository.findDueForUpdate(
+                OutboxEventStatus.PENDING, Instant.now(), PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(List.of(first.getOutboxEventId(), second.getOutboxEventId()),
+                result.stream().map(OutboxEvent::getOutboxEventId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findDueForUpdate_ShouldSkipABackedOffHeadAndReturnTheDueEventsBehindIt() {
+        // Given
+        OutboxEvent backedOff = OutboxEvent.orderStatusPatch(1);
+        backedOff.setNextAttemptAt(Instant.now().plusSeconds(60));
+        outboxEventRepository.save(backedOff);
+        outboxEventRepository.save(OutboxEvent.orderStatusPatch(1));
+        OutboxEvent due = outboxEventRepository.save(OutboxEvent.orderStatusPatch(2));
+
+        // When
+        List<OutboxEvent> result = outboxEventRepository.findDueForUpdate(
+                OutboxEventStatus.PENDING, Instant.now(), PageRequest.of(0, 1));
+
+        // Then
+        assertEquals(List.of(due.getOutboxEventId()),
+                result.stream().map(OutboxEvent::getOutboxEventId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void existsByOrderIdAndEventTypeAndEventStatus_ShouldOnlyMatchPendingEventsOfTheOrder() {
+        // Given
+        outboxEventRepository.save(OutboxEvent.orderStatusPatch(1));
+
+        // When & Then
+        assertTrue(outboxEventRepository.existsByOrderIdAndEventTypeAndEventStatus(
+                1, OutboxEventType.ORDER_STATUS_PATCH, OutboxEventStatus.PENDING));
+        assertFalse(outboxEventRepository.existsByOrderIdAndEventTypeAndEventStatus(
+                2, OutboxEventType.ORDER_STATUS_PATCH, OutboxEventStatus.PENDING));
+    }
+
+    @Test
+    void insertAll_ShouldInsertTheEventsFoundByOrderId() {
+        // When
+        outboxEventRepository.insertAll(List.of(OutboxEvent.orderStatusPatch(1), OutboxEvent.orderStatusPatch(2)));
+
+        // Then
+        assertEquals(Set.of(1, 2), outboxEventRepository.findOrderIdsWithEvent(
+                List.of(1, 2, 3), OutboxEventType.ORDER_STATUS_PATCH, OutboxEventStatus.PENDING));
+    }
+}
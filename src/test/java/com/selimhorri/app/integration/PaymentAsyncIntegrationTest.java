@@ -0,0 +1,116 @@
+package com.selimhorri.app.integration;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.selimhorri.app.cache.OrderCache;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.repository.PaymentRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * The async reads must return from the initial dispatch before ORDER-SERVICE answers.
+ */
+@Tag("integration")
+@SpringBootTest
+@AutoConfigureMockMvc
+class PaymentAsyncIntegrationTest {
+
+    private static final Duration ORDER_SERVICE_LATENCY = Duration.ofMillis(200);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OrderCache orderCache;
+
+    @MockBean
+    private OrderClient orderClient;
+
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAllInBatch();
+        payment = paymentRepository.save(Payment.builder()
+                .orderId(1)
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.IN_PROGRESS)
+                .build());
+        orderCache.invalidate(1);
+        orderCache.invalidate(2);
+        when(orderClient.findById(anyInt())).thenAnswer(invocation -> Mono.just(OrderDto.builder()
+                        .orderId(invocation.getArgument(0))
+                        .orderStatus("IN_PAYMENT")
+                        .build())
+                .delayElement(ORDER_SERVICE_LATENCY));
+    }
+
+    @Test
+    void findByIdAsync_ShouldReleaseTheRequestThreadAndAnswerOnceTheOrderArrives() throws Exception {
+        // When
+        MvcResult mvcResult = mockMvc.perform(get("/api/payments/async/{paymentId}", payment.getPaymentId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paymentId").value(payment.getPaymentId()))
+                .andExpect(jsonPath("$.order.orderStatus").value("IN_PAYMENT"));
+    }
+
+    @Test
+    void findByIdAsync_ShouldAnswerNotFoundWhenTheOrderIsUnknown() throws Exception {
+        // Given
+        Payment withoutOrder = paymentRepository.save(Payment.builder()
+                .orderId(2)
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.IN_PROGRESS)
+                .build());
+        when(orderClient.findById(2)).thenReturn(Mono.empty());
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(get("/api/payments/async/{paymentId}", withoutOrder.getPaymentId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void findAllAsync_ShouldAnswerWithTheEnrichedPayments() throws Exception {
+        // When
+        MvcResult mvcResult = mockMvc.perform(get("/api/payments/async"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].paymentId").value(payment.getPaymentId()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.repository.PaymentRepository;
+
+/**
+ * Checks on H2 that the SQL the payments finders generate is served by the V6 indexes instead of a table scan.
+ */
+@Tag("integration")
+@DataJpaTest
+@Import(StatementCapture.Config.class)
+class PaymentQueryPlanIntegrationTest {
+
+    static final EnumSet<PaymentStatus> OPEN_STATUSES = EnumSet.of(PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String explain(Runnable repositoryCall) {
+        StatementCapture.Statement statement = statementCapture.only(repositoryCall);
+        return jdbcTemplate.queryForObject("EXPLAIN " + statement.getSql(), String.class, statement.getParameters())
+                .toUpperCase();
+    }
+
+    @Test
+    void findCandidates_ShouldUseTheCoveringStatusIndex() {
+        // When
+        String plan = explain(() -> paymentRepository.findCandidates(OPEN_STATUSES));
+
+        // Then
+        assertTrue(plan.contains("IDX_PAYMENTS_STATUS_PAYMENT_ID"), plan);
+    }
+
+    @Test
+    void findCandidatesAfter_ShouldUseTheCoveringStatusIndex() {
+        // When
+        String plan = explain(() -> paymentRepository.findCandidatesAfter(OPEN_STATUSES, 0, PageRequest.of(0, 10)));
+
+        // Then
+        assertTrue(plan.contains("IDX_PAYMENTS_STATUS_PAYMENT_ID"), plan);
+    }
+
+    @Test
+    void findAllByOrderIdIn_ShouldUseTheOrderIndex() {
+        // When
+        String plan = explain(() -> paymentRepository.findAllByOrderIdIn(List.of(1, 2, 3)));
+
+        // Then
+        assertTrue(plan.contains("IDX_PAYMENTS_ORDER_ID_STATUS"), plan);
+    }
+}
@@ -0,0 +1,104 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.selimhorri.app.repository.PaymentRepository;
+
+/**
+ * Same access paths as {@link PaymentQueryPlanIntegrationTest}, planned by MySQL, skipped when Docker is not available.
+ */
+@Tag("integration")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(StatementCapture.Config.class)
+class PaymentQueryPlanMySqlIntegrationTest {
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.26");
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.MySQL8Dialect");
+    }
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Enough closed payments for the optimizer to prefer an index over scanning the table
+        jdbcTemplate.update("DELETE FROM payments");
+        jdbcTemplate.batchUpdate("INSERT INTO payments (order_id, is_payed, payment_status) VALUES (?, ?, ?)",
+                IntStream.rangeClosed(1, 2_000)
+                        .mapToObj(i -> new Object[] { i, true, i % 50 == 0 ? "IN_PROGRESS" : "COMPLETED" })
+                        .collect(Collectors.toList()));
+        jdbcTemplate.execute("ANALYZE TABLE payments");
+    }
+
+    private List<Map<String, Object>> explain(Runnable repositoryCall) {
+        StatementCapture.Statement statement = statementCapture.only(repositoryCall);
+        return jdbcTemplate.queryForList("EXPLAIN " + statement.getSql(), statement.getParameters());
+    }
+
+    private List<String> keysUsedBy(Runnable repositoryCall) {
+        return explain(repositoryCall).stream()
+                .map(row -> (String) row.get("key"))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void findCandidates_ShouldUseTheCoveringStatusIndex() {
+        // When
+        List<Map<String, Object>> plan = explain(
+                () -> paymentRepository.findCandidates(PaymentQueryPlanIntegrationTest.OPEN_STATUSES));
+
+        // Then
+        assertEquals("idx_payments_status_payment_id", plan.get(0).get("key"), plan.toString());
+        assertTrue(String.valueOf(plan.get(0).get("Extra")).contains("Using index"), plan.toString());
+    }
+
+    @Test
+    void findCandidatesAfter_ShouldUseTheCoveringStatusIndex() {
+        // When & Then
+        assertEquals(List.of("idx_payments_status_payment_id"), keysUsedBy(() -> paymentRepository.findCandidatesAfter(
+                PaymentQueryPlanIntegrationTest.OPEN_STATUSES, 0, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void findAllByOrderIdIn_ShouldUseTheOrderIndex() {
+        // When & Then
+        assertEquals(List.of("idx_payments_order_id_status"),
+                keysUsedBy(() -> paymentRepository.findAllByOrderIdIn(List.of(1, 2, 3))));
+    }
+}
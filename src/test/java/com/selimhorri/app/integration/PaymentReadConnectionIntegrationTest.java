@@ -0,0 +1,121 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import com.selimhorri.app.cache.OrderCache;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.PaymentService;
+import com.zaxxer.hikari.HikariDataSource;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * No JDBC connection may stay checked out while ORDER-SERVICE is waited for. The outbox relay is off, as its
+ * polls would show up in the pool's active connections.
+ */
+@Tag("integration")
+@SpringBootTest(properties = "app.outbox.relay-enabled=false")
+class PaymentReadConnectionIntegrationTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OrderCache orderCache;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private OrderClient orderClient;
+
+    private final List<Integer> activeConnectionsDuringLookup = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        paymentRepository.deleteAllInBatch();
+        paymentRepository.save(Payment.builder()
+                .orderId(1)
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.IN_PROGRESS)
+                .build());
+        orderCache.invalidate(1);
+        activeConnectionsDuringLookup.clear();
+        HikariDataSource hikariDataSource = dataSource.unwrap(HikariDataSource.class);
+        when(orderClient.findById(anyInt())).thenAnswer(invocation -> Mono.fromCallable(() -> {
+            activeConnectionsDuringLookup.add(hikariDataSource.getHikariPoolMXBean().getActiveConnections());
+            return OrderDto.builder()
+                    .orderId(invocation.getArgument(0))
+                    .orderStatus("IN_PAYMENT")
+                    .build();
+        }));
+        when(orderClient.findAllById(anyCollection(), anyInt())).thenCallRealMethod();
+    }
+
+    @Test
+    void findAll_ShouldNotHoldAConnectionWhileEnriching() {
+        // When
+        paymentService.findAll();
+
+        // Then
+        assertEquals(List.of(0), activeConnectionsDuringLookup);
+    }
+
+    @Test
+    void findAllPage_ShouldNotHoldAConnectionWhileEnriching() {
+        // When
+        paymentService.findAll(null, 10);
+
+        // Then
+        assertEquals(List.of(0), activeConnectionsDuringLookup);
+    }
+
+    @Test
+    void streamAll_ShouldNotHoldAConnectionWhileEnriching() {
+        // When
+        paymentService.streamAll(paymentDto -> { });
+
+        // Then
+        assertEquals(List.of(0), activeConnectionsDuringLookup);
+    }
+
+    @Test
+    void findById_ShouldNotHoldAConnectionWhileEnriching() {
+        // When
+        paymentService.findById(paymentRepository.findAll().get(0).getPaymentId());
+
+        // Then
+        assertEquals(List.of(0), activeConnectionsDuringLookup);
+    }
+
+    @Test
+    void findAllByOrderIds_ShouldNotHoldAConnectionWhileEnriching() {
+        // When
+        paymentService.findAllByOrderIds(List.of(1), true);
+
+        // Then
+        assertEquals(List.of(0), activeConnectionsDuringLookup);
+    }
+}
@@ -0,0 +1,187 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.domain.PaymentStatusTransition;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.repository.PaymentRepository;
+
+@Tag("integration")
+@DataJpaTest
+class PaymentRepositoryIntegrationTest {
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+    }
+
+    private Payment save(Integer orderId, PaymentStatus paymentStatus) {
+        return paymentRepository.save(Payment.builder()
+                .orderId(orderId)
+                .isPayed(false)
+                .paymentStatus(paymentStatus)
+                .build());
+    }
+
+    @Test
+    void findCandidates_ShouldReturnOnlyPaymentsInTheGivenStatusesWithAnOrder() {
+        // Given
+        Payment notStarted = save(1, PaymentStatus.NOT_STARTED);
+        Payment inProgress = save(2, PaymentStatus.IN_PROGRESS);
+        save(3, PaymentStatus.COMPLETED);
+        save(4, PaymentStatus.CANCELED);
+        save(null, PaymentStatus.IN_PROGRESS);
+
+        // When
+        List<PaymentDto> result = paymentRepository.findCandidates(
+                EnumSet.of(PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS));
+
+        // Then
+        assertEquals(
+                List.of(notStarted.getPaymentId(), inProgress.getPaymentId()),
+                result.stream().map(PaymentDto::getPaymentId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findCandidatesAfter_ShouldSeekPastTheGivenPaymentIdAndLimitThePage() {
+        // Given
+        Payment first = save(1, PaymentStatus.IN_PROGRESS);
+        Payment second = save(2, PaymentStatus.IN_PROGRESS);
+        save(3, PaymentStatus.CANCELED);
+        Payment fourth = save(4, PaymentStatus.NOT_STARTED);
+        Payment fifth = save(5, PaymentStatus.IN_PROGRESS);
+        EnumSet<PaymentStatus> statuses = EnumSet.of(PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS);
+
+        // When
+        List<PaymentDto> firstPage = paymentRepository.findCandidatesAfter(statuses, 0, PageRequest.of(0, 2));
+        List<PaymentDto> secondPage = paymentRepository.findCandidatesAfter(
+                statuses, firstPage.get(1).getPaymentId(), PageRequest.of(0, 2));
+
+        // Then
+        assertEquals(List.of(first.getPaymentId(), second.getPaymentId()),
+                firstPage.stream().map(PaymentDto::getPaymentId).collect(Collectors.toList()));
+        assertEquals(List.of(fourth.getPaymentId(), fifth.getPaymentId()),
+                secondPage.stream().map(PaymentDto::getPaymentId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findDtoById_ShouldReadTheRowIntoADto() {
+        // Given
+        Payment payment = save(5, PaymentStatus.IN_PROGRESS);
+
+        // When
+        PaymentDto result = paymentRepository.findDtoById(payment.getPaymentId()).orElseThrow();
+
+        // Then
+        assertEquals(payment.getPaymentId(), result.getPaymentId());
+        assertEquals(5, result.getOrderDto().getOrderId());
+        assertEquals(PaymentStatus.IN_PROGRESS, result.getPaymentStatus());
+        assertFalse(result.getIsPayed());
+        assertTrue(paymentRepository.findDtoById(-1).isEmpty());
+    }
+
+    @Test
+    void findAllByOrderIdIn_ShouldReturnEveryPaymentOfTheOrdersSortedByOrder() {
+        // Given
+        Payment canceled = save(2, PaymentStatus.CANCELED);
+        Payment first = save(1, PaymentStatus.IN_PROGRESS);
+        Payment retried = save(2, PaymentStatus.NOT_STARTED);
+        save(3, PaymentStatus.NOT_STARTED);
+
+        // When
+        List<PaymentDto> result = paymentRepository.findAllByOrderIdIn(List.of(1, 2));
+
+        // Then
+        assertEquals(List.of(first.getPaymentId(), canceled.getPaymentId(), retried.getPaymentId()),
+                result.stream().map(PaymentDto::getPaymentId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void insertAll_ShouldInsertTheBatchAndSetGeneratedIds() {
+        // Given
+        List<Payment> payments = List.of(
+                Payment.builder().orderId(1).isPayed(false).paymentStatus(PaymentStatus.NOT_STARTED).build(),
+                Payment.builder().orderId(2).isPayed(false).paymentStatus(PaymentStatus.NOT_STARTED).build());
+
+        // When
+        List<Payment> result = paymentRepository.insertAll(payments);
+
+        // Then
+        assertNotNull(result.get(0).getPaymentId());
+        assertTrue(result.get(1).getPaymentId() > result.get(0).getPaymentId());
+        assertEquals(2, paymentRepository.findById(result.get(1).getPaymentId()).orElseThrow().getOrderId());
+        assertEquals(2, paymentRepository.count());
+    }
+
+    @Test
+    void updateStatus_ShouldOnlyChangeRowsStillInTheSourceStatus() {
+        // Given
+        Payment notStarted = save(1, PaymentStatus.NOT_STARTED);
+        Payment completed = save(2, PaymentStatus.COMPLETED);
+
+        // When
+        List<Payment> locked = paymentRepository.findAllByIdForUpdate(
+                List.of(notStarted.getPaymentId(), completed.getPaymentId()));
+        int updated = paymentRepository.updateStatus(
+                List.of(notStarted.getPaymentId(), completed.getPaymentId()),
+                PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS, Instant.now());
+
+        // Then
+        assertEquals(2, locked.size());
+        assertEquals(1, updated);
+        assertEquals(PaymentStatus.IN_PROGRESS,
+                paymentRepository.findById(notStarted.getPaymentId()).orElseThrow().getPaymentStatus());
+        assertEquals(PaymentStatus.COMPLETED,
+                paymentRepository.findById(completed.getPaymentId()).orElseThrow().getPaymentStatus());
+    }
+
+    @Test
+    void updateStatus_ShouldIncrementTheVersionOfUpdatedRows() {
+        // Given
+        Payment payment = save(1, PaymentStatus.IN_PROGRESS);
+        assertEquals(0L, payment.getVersion());
+
+        // When
+        paymentRepository.updateStatus(List.of(payment.getPaymentId()),
+                PaymentStatus.IN_PROGRESS, PaymentStatus.COMPLETED, Instant.now());
+
+        // Then
+        assertEquals(1L, paymentRepository.findById(payment.getPaymentId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void advanceStatus_ShouldMoveEachPaymentAlongTheAdvanceTransition() {
+        for (PaymentStatus source : PaymentStatus.values()) {
+            // Given
+            Payment payment = save(1, source);
+            Optional<PaymentStatus> target = PaymentStatusTransition.ADVANCE.targetOf(source);
+
+            // When
+            int updated = paymentRepository.advanceStatus(payment.getPaymentId(), Instant.now());
+
+            // Then
+            Payment stored = paymentRepository.findById(payment.getPaymentId()).orElseThrow();
+            assertEquals(target.isPresent() ? 1 : 0, updated, source.name());
+            assertEquals(target.orElse(source), stored.getPaymentStatus(), source.name());
+            assertEquals(target.isPresent() ? 1L : 0L, stored.getVersion(), source.name());
+        }
+    }
+}
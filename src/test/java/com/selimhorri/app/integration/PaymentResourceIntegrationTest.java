@@ -1,5 +1,6 @@
 package com.selimhorri.app.integration;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -7,6 +8,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -17,6 +20,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -24,7 +28,11 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.response.PaymentStatusUpdateResponse;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.exception.wrapper.PaymentConflictException;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
+import com.selimhorri.app.resource.PaymentResource;
 import com.selimhorri.app.service.PaymentService;
 
 @Tag("integration")
@@ -88,6 +96,70 @@ class PaymentResourceIntegrationTest {
         verify(paymentService, times(1)).findAll();
     }
 
+    @Test
+    void shouldFetchPaymentPageWhenLimitIsGiven() throws Exception {
+        // Mock data
+        PaymentDto paymentDto = PaymentDto.builder()
+                .paymentId(1)
+                .paymentStatus(com.selimhorri.app.domain.PaymentStatus.IN_PROGRESS)
+                .build();
+
+        // Mock service call
+        when(paymentService.findAll(null, 1))
+                .thenReturn(new DtoCursorPageResponse<>(List.of(paymentDto), "next-cursor"));
+
+        // Perform request and verify
+        mockMvc.perform(get("/api/payments")
+                .param("limit", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection.length()").value(1))
+                .andExpect(jsonPath("$.collection[0].paymentId").value(1))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+
+        verify(paymentService, never()).findAll();
+    }
+
+    @Test
+    void shouldStreamPaymentsAsNdjson() throws Exception {
+        // Mock data
+        PaymentDto paymentDto1 = PaymentDto.builder()
+                .paymentId(1)
+                .paymentStatus(com.selimhorri.app.domain.PaymentStatus.IN_PROGRESS)
+                .build();
+        PaymentDto paymentDto2 = PaymentDto.builder()
+                .paymentId(2)
+                .paymentStatus(com.selimhorri.app.domain.PaymentStatus.NOT_STARTED)
+                .build();
+
+        // Mock service call
+        doAnswer(invocation -> {
+            Consumer<PaymentDto> consumer = invocation.getArgument(0);
+            consumer.accept(paymentDto1);
+            consumer.accept(paymentDto2);
+            return null;
+        }).when(paymentService).streamAll(any());
+
+        // Perform request and verify
+        MvcResult mvcResult = mockMvc.perform(get("/api/payments")
+                .accept(PaymentResource.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PaymentResource.APPLICATION_NDJSON_VALUE))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1, objectMapper.readValue(lines[0], PaymentDto.class).getPaymentId());
+        assertEquals(2, objectMapper.readValue(lines[1], PaymentDto.class).getPaymentId());
+        verify(paymentService, never()).findAll();
+    }
+
     @Test
     void shouldFetchPaymentById() throws Exception {
         // Mock data
@@ -226,6 +298,18 @@ class PaymentResourceIntegrationTest {
         verify(paymentService, times(1)).updateStatus(1);
     }
 
+    @Test
+    void shouldReturnConflictWhenPaymentStatusChangedConcurrently() throws Exception {
+        // Given
+        when(paymentService.updateStatus(anyInt()))
+                .thenThrow(new PaymentConflictException("Payment with id: 1 is no longer NOT_STARTED"));
+
+        // When & Then
+        mockMvc.perform(patch("/api/payments/{paymentId}", 1)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void shouldDeletePayment() throws Exception {
         // Mock service (deleteById is void)
@@ -272,4 +356,95 @@ class PaymentResourceIntegrationTest {
 
         verify(paymentService, never()).save(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReplayStoredResponseForRepeatedIdempotencyKey() throws Exception {
+        // Given
+        String idempotencyKey = UUID.randomUUID().toString();
+        PaymentDto inputDto = PaymentDto.builder()
+                .orderDto(OrderDto.builder().orderId(1).build())
+                .build();
+        PaymentDto savedDto = PaymentDto.builder()
+                .paymentId(7)
+                .paymentStatus(com.selimhorri.app.domain.PaymentStatus.NOT_STARTED)
+                .orderDto(OrderDto.builder().orderId(1).build())
+                .build();
+        when(paymentService.save(any(PaymentDto.class), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<PaymentDto>>getArgument(1).accept(savedDto);
+            return savedDto;
+        });
+
+        // When & Then
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/payments")
+                    .header(PaymentResource.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(inputDto)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.paymentId").value(7))
+                    .andExpect(jsonPath("$.order.orderId").value(1));
+        }
+        verify(paymentService, times(1)).save(any(PaymentDto.class), any());
+    }
+
+    @Test
+    void shouldRejectIdempotencyKeyReusedForDifferentRequest() throws Exception {
+        // Given
+        String idempotencyKey = UUID.randomUUID().toString();
+        when(paymentService.save(any(PaymentDto.class), any())).thenReturn(PaymentDto.builder().paymentId(8).build());
+        mockMvc.perform(post("/api/payments")
+                .header(PaymentResource.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        PaymentDto.builder().orderDto(OrderDto.builder().orderId(1).build()).build())))
+                .andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(post("/api/payments")
+                .header(PaymentResource.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        PaymentDto.builder().orderDto(OrderDto.builder().orderId(2).build()).build())))
+                .andExpect(status().isBadRequest());
+        verify(paymentService, times(1)).save(any(PaymentDto.class), any());
+    }
+
+    @Test
+    void shouldRouteBulkStatusUpdateAwayFromSinglePaymentPatch() throws Exception {
+        // Given
+        when(paymentService.updateStatus(List.of(1, 2))).thenReturn(List.of(
+                PaymentStatusUpdateResponse.updated(1, com.selimhorri.app.domain.PaymentStatus.IN_PROGRESS),
+                PaymentStatusUpdateResponse.notFound(2)));
+
+        // When & Then
+        mockMvc.perform(patch("/api/payments/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$.collection[0].paymentStatus").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.collection[1].outcome").value("NOT_FOUND"));
+        verify(paymentService, never()).updateStatus(anyInt());
+    }
+
+    @Test
+    void shouldFetchPaymentsByOrderIds() throws Exception {
+        // Given
+        PaymentDto paymentDto = PaymentDto.builder()
+                .paymentId(7)
+                .paymentStatus(com.selimhorri.app.domain.PaymentStatus.IN_PROGRESS)
+                .orderDto(OrderDto.builder().orderId(3).build())
+                .build();
+        when(paymentService.findAllByOrderIds(List.of(1, 2, 3), false)).thenReturn(List.of(paymentDto));
+        when(paymentService.findAllByOrderIds(List.of(3), true)).thenReturn(List.of(paymentDto));
+
+        // When & Then
+        mockMvc.perform(get("/api/payments/by-order").param("orderIds", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].paymentId").value(7))
+                .andExpect(jsonPath("$.collection[0].order.orderId").value(3));
+        mockMvc.perform(get("/api/payments/by-order/{orderId}", 3).param("enrich", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection.length()").value(1));
+    }
+}
@@ -0,0 +1,133 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.util.NestedServletException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.cache.OrderCache;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.repository.IdempotencyKeyRepository;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.resource.PaymentResource;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A payment is only started for an order ORDER-SERVICE still reports as ORDERED, whatever this instance cached, and
+ * only commits along with the completion of its idempotency key.
+ */
+@Tag("integration")
+@SpringBootTest
+@AutoConfigureMockMvc
+class PaymentSaveIntegrationTest {
+
+    private static final int ORDER_ID = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderCache orderCache;
+
+    @MockBean
+    private OrderClient orderClient;
+
+    @MockBean
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAllInBatch();
+        outboxEventRepository.deleteAllInBatch();
+        orderCache.invalidate(ORDER_ID);
+    }
+
+    private static OrderDto order(String status) {
+        return OrderDto.builder()
+                .orderId(ORDER_ID)
+                .orderStatus(status)
+                .build();
+    }
+
+    @Test
+    void save_ShouldRejectAnOrderCachedAsOrderedOnceItsStatusPatchWasDelivered() throws Exception {
+        // Given
+        when(orderClient.findById(ORDER_ID))
+                .thenReturn(Mono.just(order("ORDERED")))
+                .thenReturn(Mono.just(order("IN_PAYMENT")));
+        assertEquals("ORDERED", orderCache.get(ORDER_ID).orElseThrow().getOrderStatus());
+        PaymentDto paymentDto = PaymentDto.builder()
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.NOT_STARTED)
+                .orderDto(OrderDto.builder().orderId(ORDER_ID).build())
+                .build();
+
+        // When & Then
+        mockMvc.perform(post("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(paymentDto)))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, paymentRepository.count());
+        assertEquals("IN_PAYMENT", orderCache.get(ORDER_ID).orElseThrow().getOrderStatus());
+    }
+
+    @Test
+    void save_ShouldRollThePaymentBackWhenItsIdempotencyKeyCannotBeCompleted() throws Exception {
+        // Given
+        String idempotencyKey = UUID.randomUUID().toString();
+        when(orderClient.findById(ORDER_ID)).thenReturn(Mono.just(order("ORDERED")));
+        // Reserving the key finds none, completing it fails, releasing it finds none left
+        when(idempotencyKeyRepository.findById(idempotencyKey))
+                .thenReturn(Optional.empty())
+                .thenThrow(new QueryTimeoutException("completion failed"))
+                .thenReturn(Optional.empty());
+        PaymentDto paymentDto = PaymentDto.builder()
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.NOT_STARTED)
+                .orderDto(OrderDto.builder().orderId(ORDER_ID).build())
+                .build();
+
+        // When
+        NestedServletException exception = assertThrows(NestedServletException.class,
+                () -> mockMvc.perform(post("/api/payments")
+                        .header(PaymentResource.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(paymentDto))));
+
+        // Then
+        assertTrue(exception.getCause() instanceof QueryTimeoutException);
+        assertEquals(0, paymentRepository.count());
+        assertEquals(0, outboxEventRepository.count());
+        verify(idempotencyKeyRepository, times(3)).findById(idempotencyKey);
+    }
+}
@@ -0,0 +1,56 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.config.cache.PaymentCacheConfig;
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.repository.PaymentRepository;
+
+/**
+ * hibernate-jcache on the classpath must not turn the second-level cache on while app.payment-cache.enabled is false.
+ */
+@Tag("integration")
+@DataJpaTest(properties = "app.payment-cache.enabled=false")
+@Import(PaymentCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentSecondLevelCacheDisabledIntegrationTest {
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void secondLevelCache_ShouldBeOffWhenDisabled() {
+        // Given
+        SessionFactoryOptions options = entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions();
+        Payment payment = paymentRepository.save(Payment.builder()
+                .orderId(1)
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.NOT_STARTED)
+                .build());
+
+        // When
+        paymentRepository.findById(payment.getPaymentId());
+
+        // Then
+        assertFalse(options.isSecondLevelCacheEnabled());
+        assertFalse(options.isQueryCacheEnabled());
+        assertFalse(entityManagerFactory.getCache().contains(Payment.class, payment.getPaymentId()));
+        paymentRepository.deleteAllInBatch();
+    }
+}
@@ -0,0 +1,132 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.selimhorri.app.config.cache.PaymentCacheConfig;
+import com.selimhorri.app.config.query.QueryStatisticsConfig;
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.repository.PaymentRepository;
+
+/**
+ * Query statistics are off, the cache alone has to keep the Hibernate statistics its meters and these tests read.
+ */
+@Tag("integration")
+@DataJpaTest(properties = {"app.payment-cache.enabled=true", "app.query-statistics.enabled=false"})
+@Import({PaymentCacheConfig.class, QueryStatisticsConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentSecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAllInBatch();
+    }
+
+    private Payment save(Integer orderId, PaymentStatus paymentStatus) {
+        return paymentRepository.save(Payment.builder()
+                .orderId(orderId)
+                .isPayed(false)
+                .paymentStatus(paymentStatus)
+                .build());
+    }
+
+    @Test
+    void findById_ShouldBeServedFromTheEntityRegionUntilTheStatusChanges() {
+        // Given
+        Payment payment = save(1, PaymentStatus.NOT_STARTED);
+
+        // When, IDENTITY inserts are not cached so the first read loads the region
+        paymentRepository.findById(payment.getPaymentId());
+        paymentRepository.findById(payment.getPaymentId());
+        long hitsBeforeUpdate = statistics.getDomainDataRegionStatistics(Payment.CACHE_REGION).getHitCount();
+        transactionOperations.executeWithoutResult(status -> paymentRepository.updateStatus(
+                List.of(payment.getPaymentId()), PaymentStatus.NOT_STARTED, PaymentStatus.IN_PROGRESS, Instant.now()));
+
+        // Then
+        assertEquals(1, hitsBeforeUpdate);
+        assertEquals(PaymentStatus.IN_PROGRESS,
+                paymentRepository.findById(payment.getPaymentId()).orElseThrow().getPaymentStatus());
+    }
+
+    @Test
+    void findDtoById_ShouldBeServedFromTheQueryCacheUntilTheStatusChanges() {
+        // Given
+        Payment payment = save(1, PaymentStatus.IN_PROGRESS);
+
+        // When
+        paymentRepository.findDtoById(payment.getPaymentId());
+        paymentRepository.findDtoById(payment.getPaymentId());
+        long hitsBeforeUpdate = statistics.getQueryRegionStatistics(PaymentRepository.QUERY_CACHE_REGION).getHitCount();
+        transactionOperations.executeWithoutResult(status -> paymentRepository.updateStatus(
+                List.of(payment.getPaymentId()), PaymentStatus.IN_PROGRESS, PaymentStatus.CANCELED, Instant.now()));
+
+        // Then
+        assertEquals(1, hitsBeforeUpdate);
+        assertEquals(PaymentStatus.CANCELED,
+                paymentRepository.findDtoById(payment.getPaymentId()).orElseThrow().getPaymentStatus());
+    }
+
+    @Test
+    void findAllByOrderIdIn_ShouldSeePaymentsInsertedThroughJdbcBatches() {
+        // Given
+        assertTrue(paymentRepository.findAllByOrderIdIn(List.of(42)).isEmpty());
+
+        // When
+        transactionOperations.executeWithoutResult(status -> paymentRepository.insertAll(List.of(Payment.builder()
+                .orderId(42)
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.NOT_STARTED)
+                .build())));
+
+        // Then
+        assertEquals(1, paymentRepository.findAllByOrderIdIn(List.of(42)).size());
+    }
+
+    @Test
+    void statistics_ShouldNotLogTheMetricsOfEverySession() {
+        // When
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        // Then
+        assertTrue(sessionFactory.getStatistics().isStatisticsEnabled());
+        assertFalse(sessionFactory.getSessionFactoryOptions().getBaselineSessionEventsListenerBuilder()
+                .isLogSessionMetrics());
+    }
+}
@@ -0,0 +1,138 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.EnumSet;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.query.QueryMetricsStatistics;
+import com.selimhorri.app.query.QueryStatisticsEndpoint;
+import com.selimhorri.app.query.QueryStatisticsEndpoint.QueriesReport;
+import com.selimhorri.app.query.QueryStatisticsEndpoint.QueryReport;
+import com.selimhorri.app.query.SlowQuery;
+import com.selimhorri.app.repository.PaymentRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs with a zero slow-query threshold, so every statement lands in the slow-query log.
+ */
+@Tag("integration")
+@SpringBootTest(properties = "app.query-statistics.slow-threshold=0ms")
+@AutoConfigureMockMvc
+class QueryStatisticsIntegrationTest {
+
+    private static final String FIND_CANDIDATES_QUERY = "FROM Payment p WHERE p.paymentStatus IN (:paymentStatuses";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private QueryStatisticsEndpoint queryStatisticsEndpoint;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private OrderClient orderClient;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAllInBatch();
+        paymentRepository.save(Payment.builder()
+                .orderId(7)
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.IN_PROGRESS)
+                .build());
+        queryStatisticsEndpoint.reset();
+    }
+
+    private long queryMeterCount() {
+        // Meters are cumulative, a reset of the endpoint leaves them alone
+        return meterRegistry.find(QueryMetricsStatistics.QUERY_METER).timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    @Test
+    void queries_ShouldReportExecutionsRowsAndSlowStatementsWithTheirParameters() {
+        // Given
+        long queryMeterCount = queryMeterCount();
+
+        // When
+        paymentRepository.findCandidates(EnumSet.of(PaymentStatus.IN_PROGRESS));
+        paymentRepository.findCandidates(EnumSet.of(PaymentStatus.COMPLETED));
+        QueriesReport report = queryStatisticsEndpoint.queries();
+
+        // Then
+        QueryReport candidates = report.getQueries().stream()
+                .filter(query -> query.getQuery().contains(FIND_CANDIDATES_QUERY))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, candidates.getExecutions());
+        assertEquals(1, candidates.getRows());
+        assertEquals(2, queryMeterCount() - queryMeterCount);
+        assertEquals(1, meterRegistry.get(QueryMetricsStatistics.ROWS_METER)
+                .tag("query", candidates.getQuery())
+                .summary()
+                .max());
+        SlowQuery slowQuery = report.getSlowQueries().get(0);
+        assertTrue(slowQuery.getQueries().get(0).contains("payment_status in"), slowQuery.getQueries().toString());
+        assertEquals(1, slowQuery.getParameters().size());
+        assertTrue(slowQuery.getParameters().get(0).contains(PaymentStatus.COMPLETED.name()));
+    }
+
+    @Test
+    void queriesEndpoint_ShouldBeExposedAndReset() throws Exception {
+        // Given
+        paymentRepository.findCandidates(EnumSet.of(PaymentStatus.IN_PROGRESS));
+
+        // When
+        mockMvc.perform(get("/actuator/queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statisticsEnabled").value(true))
+                .andExpect(jsonPath("$.slowThresholdMillis").value(0))
+                .andExpect(jsonPath("$.queries[0].executions").value(1))
+                .andExpect(jsonPath("$.slowQueries[0].parameters").isArray());
+        mockMvc.perform(delete("/actuator/queries"))
+                .andExpect(status().is2xxSuccessful());
+
+        // Then
+        assertTrue(queryStatisticsEndpoint.queries().getQueries().isEmpty());
+        assertTrue(queryStatisticsEndpoint.queries().getSlowQueries().isEmpty());
+    }
+
+    @Test
+    void statistics_ShouldNotLogTheMetricsOfEverySession() {
+        // When
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        // Then
+        assertTrue(sessionFactory.getStatistics().isStatisticsEnabled());
+        assertFalse(sessionFactory.getSessionFactoryOptions().getBaselineSessionEventsListenerBuilder()
+                .isLogSessionMetrics());
+    }
+}
@@ -0,0 +1,120 @@
+package com.selimhorri.app.integration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.selimhorri.app.budget.RequestBudget;
+import com.selimhorri.app.budget.RequestBudgetFilter;
+import com.selimhorri.app.cache.OrderCache;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.PaymentService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Guards findAll against N+1 regressions: one query for the payments and one ORDER-SERVICE call per distinct order.
+ */
+@Tag("integration")
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestBudgetIntegrationTest {
+
+    private static final int ORDERS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private OrderCache orderCache;
+
+    @MockBean
+    private OrderClient orderClient;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAllInBatch();
+        // Two payments per order
+        paymentRepository.insertAll(IntStream.range(0, 2 * ORDERS)
+                .mapToObj(i -> Payment.builder()
+                        .orderId(1 + i % ORDERS)
+                        .isPayed(false)
+                        .paymentStatus(PaymentStatus.IN_PROGRESS)
+                        .build())
+                .collect(Collectors.toList()));
+        IntStream.rangeClosed(1, ORDERS).forEach(orderCache::invalidate);
+        when(orderClient.findById(anyInt())).thenAnswer(invocation -> Mono.just(OrderDto.builder()
+                .orderId(invocation.getArgument(0))
+                .orderStatus("IN_PAYMENT")
+                .build()));
+    }
+
+    private DistributionSummary summary(String name) {
+        return meterRegistry.get(name)
+                .tag("method", "GET")
+                .tag("uri", "/api/payments")
+                .summary();
+    }
+
+    @Test
+    void findAll_ShouldRecordOneQueryAndOneOrderCallPerDistinctOrder() throws Exception {
+        // When
+        mockMvc.perform(get("/api/payments"))
+                .andExpect(status().isOk());
+
+        // Then
+        assertEquals(ORDERS, summary(RequestBudgetFilter.ORDER_CALLS_METER).max());
+        assertEquals(1, summary(RequestBudgetFilter.SQL_STATEMENTS_METER).max());
+    }
+
+    @Test
+    void findAll_ShouldMakeNoOrderCallOnceTheOrdersAreCached() {
+        // Given
+        paymentService.findAll();
+
+        // When
+        List<?> result;
+        int orderCalls;
+        int sqlStatements;
+        try (RequestBudget requestBudget = RequestBudget.open()) {
+            result = paymentService.findAll();
+            orderCalls = requestBudget.getOrderCalls();
+            sqlStatements = requestBudget.getSqlStatements();
+        }
+
+        // Then
+        assertEquals(2 * ORDERS, result.size());
+        assertEquals(0, orderCalls);
+        assertEquals(1, sqlStatements);
+    }
+}
@@ -0,0 +1,111 @@
+package com.selimhorri.app.integration;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Records the statements sent through the DataSource with their bind parameters, so query plan tests EXPLAIN the SQL
+ * Hibernate generates rather than a copy of it.
+ */
+class StatementCapture implements QueryExecutionListener {
+
+    private final List<Statement> statements = new ArrayList<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public synchronized void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+            statements.add(new Statement(queryInfo.getQuery(),
+                    parametersList.isEmpty() ? new Object[0] : values(parametersList.get(0))));
+        }
+    }
+
+    private static Object[] values(List<ParameterSetOperation> parameterSet) {
+        // args are the parameter index and its value, as passed to PreparedStatement.setXxx
+        return parameterSet.stream()
+                .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                .map(operation -> operation.getArgs()[1])
+                .toArray();
+    }
+
+    /**
+     * The single statement run by the call, fails when it ran none or several.
+     */
+    synchronized Statement only(Runnable call) {
+        statements.clear();
+        call.run();
+        if (statements.size() != 1) {
+            throw new IllegalStateException("Expected one statement, got " + statements);
+        }
+        return statements.get(0);
+    }
+
+    static final class Statement {
+
+        private final String sql;
+
+        private final Object[] parameters;
+
+        Statement(String sql, Object[] parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+
+        String getSql() {
+            return sql;
+        }
+
+        Object[] getParameters() {
+            return parameters;
+        }
+
+        @Override
+        public String toString() {
+            return sql;
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+
+        @Bean
+        static BeanPostProcessor statementCaptureDataSourcePostProcessor(ObjectProvider<StatementCapture> capture) {
+            return new BeanPostProcessor() {
+
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                                .listener(capture.getObject())
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.selimhorri.app.loadtest;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Open model load: requests start on a fixed schedule whatever the response times, and each latency is measured
+ * from the time its request was due, so a stalled server is not hidden by the client waiting for it.
+ */
+final class LoadGenerator {
+
+    private final LoadTestSettings settings;
+    private final WebClient webClient;
+    private final List<LoadScenario> scenarios;
+    private final NavigableMap<Integer, LoadScenario> scenarioByCumulativeWeight = new TreeMap<>();
+    private final int totalWeight;
+    private final LongAdder dropped = new LongAdder();
+
+    LoadGenerator(LoadTestSettings settings, WebClient webClient, List<LoadScenario> scenarios) {
+        this.settings = settings;
+        this.webClient = webClient;
+        this.scenarios = scenarios;
+        int cumulativeWeight = 0;
+        for (LoadScenario scenario : scenarios) {
+            if (scenario.weight() > 0) {
+                cumulativeWeight += scenario.weight();
+                scenarioByCumulativeWeight.put(cumulativeWeight, scenario);
+            }
+        }
+        totalWeight = cumulativeWeight;
+    }
+
+    void run() {
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate;
+        final long warmupNanos = settings.warmup.toNanos();
+        final long ticks = (settings.warmup.toNanos() + settings.duration.toNanos()) / intervalNanos;
+        final long start = System.nanoTime();
+        Flux.interval(Duration.ofNanos(intervalNanos))
+                .take(ticks)
+                .onBackpressureDrop(tick -> dropped.increment())
+                .flatMap(tick -> {
+                    final long dueAt = start + (tick + 1) * intervalNanos;
+                    final LoadScenario scenario = pick();
+                    return scenario.request(webClient)
+                            .exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode()))
+                            .onErrorReturn(LoadScenario.NO_RESPONSE)
+                            .doOnNext(status -> {
+                                if (dueAt - start >= warmupNanos) {
+                                    scenario.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - dueAt), status);
+                                }
+                            })
+                            .then(Mono.empty());
+                }, settings.maxInFlight)
+                .blockLast();
+    }
+
+    private LoadScenario pick() {
+        return scenarioByCumulativeWeight
+                .higherEntry(ThreadLocalRandom.current().nextInt(totalWeight))
+                .getValue();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    Histogram overall() {
+        final Histogram overall = new Histogram(3);
+        scenarios.forEach(scenario -> overall.add(scenario.latencies()));
+        return overall;
+    }
+
+    /**
+     * Prints throughput and latency percentiles per scenario, and writes one HdrHistogram percentile distribution
+     * per scenario to the directory for plotting.
+     */
+    void report(PrintStream out, Path directory) throws FileNotFoundException {
+        final double seconds = settings.duration.toNanos() / 1e9;
+        out.printf("%n%s%n", settings);
+        out.printf("%-10s %8s %9s %9s %9s %9s %9s %9s  %s%n",
+                "scenario", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+        scenarios.forEach(scenario -> scenario.printSummary(out, seconds));
+        final Histogram overall = overall();
+        out.printf("%-10s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", "total", overall.getTotalCount(),
+                overall.getTotalCount() / seconds,
+                LoadScenario.millis(overall.getValueAtPercentile(50)),
+                LoadScenario.millis(overall.getValueAtPercentile(90)),
+                LoadScenario.millis(overall.getValueAtPercentile(99)),
+                LoadScenario.millis(overall.getValueAtPercentile(99.9)),
+                LoadScenario.millis(overall.getMaxValue()));
+        out.printf("dropped by the client (more than %d in flight): %d%n", settings.maxInFlight, dropped());
+
+        directory.toFile().mkdirs();
+        for (LoadScenario scenario : scenarios) {
+            try (PrintStream file = new PrintStream(directory.resolve(scenario.name() + ".hgrm").toFile())) {
+                scenario.latencies().outputPercentileDistribution(file, 1000.0);
+            }
+        }
+        out.printf("latency distributions in milliseconds written to %s%n", directory.toAbsolutePath());
+    }
+}
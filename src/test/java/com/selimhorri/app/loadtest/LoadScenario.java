@@ -0,0 +1,73 @@
+package com.selimhorri.app.loadtest;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * One kind of request in the mix, with the latencies (in microseconds) and status codes of its measured calls.
+ */
+final class LoadScenario {
+
+    /** Status recorded for calls that got no response at all. */
+    static final int NO_RESPONSE = -1;
+
+    private final String name;
+    private final int weight;
+    private final BiFunction<WebClient, ThreadLocalRandom, WebClient.RequestHeadersSpec<?>> request;
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    LoadScenario(String name, int weight,
+            BiFunction<WebClient, ThreadLocalRandom, WebClient.RequestHeadersSpec<?>> request) {
+        this.name = name;
+        this.weight = weight;
+        this.request = request;
+    }
+
+    String name() {
+        return name;
+    }
+
+    int weight() {
+        return weight;
+    }
+
+    WebClient.RequestHeadersSpec<?> request(WebClient webClient) {
+        return request.apply(webClient, ThreadLocalRandom.current());
+    }
+
+    void record(long latencyMicros, int status) {
+        latencies.recordValue(latencyMicros);
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    Histogram latencies() {
+        return latencies;
+    }
+
+    long count() {
+        return latencies.getTotalCount();
+    }
+
+    void printSummary(PrintStream out, double seconds) {
+        final Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        out.printf("%-10s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n", name, count(), count() / seconds,
+                millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()), counts);
+    }
+
+    static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,78 @@
+package com.selimhorri.app.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Load test knobs, read from {@code -Dloadtest.*} system properties.
+ */
+final class LoadTestSettings {
+
+    /** Requests started per second, whatever the response times. */
+    final int rate;
+    final Duration warmup;
+    final Duration duration;
+    /** Requests in flight beyond which ticks are dropped and reported, the client is then the bottleneck. */
+    final int maxInFlight;
+    final int payments;
+    /** Scenario name to weight. */
+    final Map<String, Integer> mix;
+    /** When set, the test fails if the overall p99 is above it. */
+    final Duration maxP99;
+    /** Service side: web-client, or rest-template to hold a thread per ORDER-SERVICE call. */
+    final String orderClient;
+    /** Service side: Tomcat and rest-template calls on virtual threads, needs Java 21 or later. */
+    final boolean virtualThreads;
+
+    final Duration stubLatency;
+    final Duration stubJitter;
+    final double stubErrorRate;
+    /** Order status, or NOT_FOUND, to weight. */
+    final Map<String, Integer> stubStatuses;
+
+    private LoadTestSettings() {
+        rate = Integer.getInteger("loadtest.rate", 200);
+        warmup = duration("loadtest.warmup", "5s");
+        duration = duration("loadtest.duration", "30s");
+        maxInFlight = Integer.getInteger("loadtest.max-in-flight", 2048);
+        payments = Integer.getInteger("loadtest.payments", 1000);
+        mix = weights("loadtest.mix", "by-id=60,page=15,by-order=15,create=10");
+        final String maxP99Property = System.getProperty("loadtest.max-p99");
+        maxP99 = maxP99Property == null ? null : DurationStyle.detectAndParse(maxP99Property);
+        orderClient = System.getProperty("loadtest.order-client", "web-client");
+        virtualThreads = Boolean.getBoolean("loadtest.virtual-threads");
+        stubLatency = duration("loadtest.stub.latency", "20ms");
+        stubJitter = duration("loadtest.stub.jitter", "30ms");
+        stubErrorRate = Double.parseDouble(System.getProperty("loadtest.stub.error-rate", "0.01"));
+        stubStatuses = weights("loadtest.stub.statuses", "IN_PAYMENT=60,ORDERED=30,NOT_FOUND=10");
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings();
+    }
+
+    private static Duration duration(String name, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(name, defaultValue));
+    }
+
+    private static Map<String, Integer> weights(String name, String defaultValue) {
+        final Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : System.getProperty(name, defaultValue).split(",")) {
+            final String[] keyAndWeight = entry.trim().split("=");
+            weights.put(keyAndWeight[0].trim(), Integer.parseInt(keyAndWeight[1].trim()));
+        }
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rate=%d/s warmup=%s duration=%s payments=%d mix=%s"
+                        + " | order-client=%s virtual-threads=%s"
+                        + " | stub latency=%s+%s error-rate=%.3f statuses=%s",
+                rate, warmup, duration, payments, mix, orderClient, virtualThreads,
+                stubLatency, stubJitter, stubErrorRate, stubStatuses);
+    }
+}
@@ -0,0 +1,102 @@
+package com.selimhorri.app.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * In-process ORDER-SERVICE on a loopback port. Each order keeps the same status for the whole run, drawn from the
+ * configured distribution, every answer is delayed by latency plus a random jitter and fails with the error rate.
+ */
+final class OrderServiceStub implements AutoCloseable {
+
+    private static final String ORDERS_PATH = "/order-service/api/orders";
+    private static final String NOT_FOUND = "NOT_FOUND";
+
+    private final LoadTestSettings settings;
+    private final NavigableMap<Integer, String> statusByCumulativeWeight = new TreeMap<>();
+    private final int totalWeight;
+    private final DisposableServer server;
+
+    private OrderServiceStub(LoadTestSettings settings) {
+        this.settings = settings;
+        int cumulativeWeight = 0;
+        for (Map.Entry<String, Integer> entry : settings.stubStatuses.entrySet()) {
+            cumulativeWeight += entry.getValue();
+            statusByCumulativeWeight.put(cumulativeWeight, entry.getKey());
+        }
+        totalWeight = cumulativeWeight;
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get(ORDERS_PATH + "/{orderId}", this::findById)
+                        .route(request -> HttpMethod.PATCH.equals(request.method())
+                                && request.uri().startsWith(ORDERS_PATH) && request.uri().endsWith("/status"),
+                                this::updateStatus))
+                .bindNow();
+    }
+
+    static OrderServiceStub start(LoadTestSettings settings) {
+        return new OrderServiceStub(settings);
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    private Mono<Void> findById(HttpServerRequest request, HttpServerResponse response) {
+        final int orderId = Integer.parseInt(request.param("orderId"));
+        return answer(response, () -> {
+            final String status = statusOf(orderId);
+            if (NOT_FOUND.equals(status)) {
+                return response.status(HttpResponseStatus.NOT_FOUND).send();
+            }
+            return response
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .sendString(Mono.just(String.format(
+                            "{\"orderId\":%d,\"orderDesc\":\"load test\",\"orderFee\":10.0,\"orderStatus\":\"%s\"}",
+                            orderId, status)))
+                    .then();
+        });
+    }
+
+    private Mono<Void> updateStatus(HttpServerRequest request, HttpServerResponse response) {
+        return answer(response, () -> response.status(HttpResponseStatus.OK).send());
+    }
+
+    private Mono<Void> answer(HttpServerResponse response, Supplier<Mono<Void>> success) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long jitterNanos = settings.stubJitter.isZero() ? 0 : random.nextLong(settings.stubJitter.toNanos());
+        final boolean fail = random.nextDouble() < settings.stubErrorRate;
+        return Mono.delay(settings.stubLatency.plusNanos(jitterNanos))
+                .then(Mono.defer(() -> fail
+                        ? response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR).send()
+                        : success.get()));
+    }
+
+    private String statusOf(int orderId) {
+        // Seeded by the order id, so the cache and ORDER-SERVICE always agree on an order
+        return statusByCumulativeWeight.higherEntry(new SplittableRandom(orderId).nextInt(totalWeight)).getValue();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow(Duration.ofSeconds(5));
+    }
+}
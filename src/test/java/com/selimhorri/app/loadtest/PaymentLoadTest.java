@@ -0,0 +1,138 @@
+package com.selimhorri.app.loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.repository.PaymentRepository;
+
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Drives the payment endpoints at a fixed rate against H2 and an in-process ORDER-SERVICE, then reports throughput
+ * and latency percentiles. Needs no network: the load balancer resolves ORDER-SERVICE through the simple discovery
+ * client to the stub. Run with {@code mvn test -Ploadtest [-Dloadtest.rate=500 -Dloadtest.duration=60s ...]}, see
+ * {@link LoadTestSettings} for the knobs. To compare thread modes, run on Java 21 with
+ * {@code -Dloadtest.order-client=rest-template} once without and once with {@code -Dloadtest.virtual-threads=true}.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.zipkin.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "logging.level.com.selimhorri=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.springframework.web=WARN",
+        "logging.level.org.springframework.data=WARN",
+        "app.http-client.max-total=100",
+        "app.http-client.max-per-route=20"
+})
+class PaymentLoadTest {
+
+    private static final LoadTestSettings SETTINGS = LoadTestSettings.fromSystemProperties();
+    private static final OrderServiceStub ORDER_SERVICE = OrderServiceStub.start(SETTINGS);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @DynamicPropertySource
+    static void orderServiceStub(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances[ORDER-SERVICE][0].uri", ORDER_SERVICE::baseUrl);
+        registry.add("app.order-client.type", () -> SETTINGS.orderClient);
+        registry.add("app.virtual-threads.enabled", () -> SETTINGS.virtualThreads);
+    }
+
+    @AfterAll
+    static void stopOrderServiceStub() {
+        ORDER_SERVICE.close();
+    }
+
+    private List<Integer> seedPayments() {
+        paymentRepository.deleteAllInBatch();
+        // Two payments per order, as after a retried payment
+        return paymentRepository.insertAll(IntStream.rangeClosed(1, SETTINGS.payments)
+                        .mapToObj(i -> Payment.builder()
+                                .orderId(1 + i / 2)
+                                .isPayed(false)
+                                .paymentStatus(i % 2 == 0 ? PaymentStatus.IN_PROGRESS : PaymentStatus.NOT_STARTED)
+                                .build())
+                        .collect(Collectors.toList()))
+                .stream()
+                .map(Payment::getPaymentId)
+                .collect(Collectors.toList());
+    }
+
+    private List<LoadScenario> scenarios(List<Integer> paymentIds) {
+        final int orders = SETTINGS.payments / 2;
+        final Map<String, Integer> mix = SETTINGS.mix;
+        return List.of(
+                new LoadScenario("by-id", mix.getOrDefault("by-id", 0), (webClient, random) -> webClient.get()
+                        .uri("/api/payments/{paymentId}", paymentIds.get(random.nextInt(paymentIds.size())))),
+                new LoadScenario("by-id-async", mix.getOrDefault("by-id-async", 0), (webClient, random) -> webClient.get()
+                        .uri("/api/payments/async/{paymentId}", paymentIds.get(random.nextInt(paymentIds.size())))),
+                new LoadScenario("page", mix.getOrDefault("page", 0), (webClient, random) -> webClient.get()
+                        .uri("/api/payments?limit={limit}", 50)),
+                new LoadScenario("by-order", mix.getOrDefault("by-order", 0), (webClient, random) -> webClient.get()
+                        .uri("/api/payments/by-order/{orderId}?enrich=true", 1 + random.nextInt(orders))),
+                // New orders only, so creations are not rejected for a payment already pending
+                new LoadScenario("create", mix.getOrDefault("create", 0), (webClient, random) -> webClient.post()
+                        .uri("/api/payments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(String.format("{\"order\":{\"orderId\":%d}}",
+                                orders + 1 + random.nextInt(1_000_000)))));
+    }
+
+    @Test
+    void paymentEndpoints_ShouldServeTheTargetRate() throws Exception {
+        // Given
+        final List<Integer> paymentIds = seedPayments();
+        final ConnectionProvider connections = ConnectionProvider.builder("loadtest")
+                .maxConnections(SETTINGS.maxInFlight)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        final WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port + "/payment-service")
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+        final LoadGenerator loadGenerator = new LoadGenerator(SETTINGS, webClient, scenarios(paymentIds));
+
+        // When
+        try {
+            loadGenerator.run();
+        }
+        finally {
+            connections.disposeLater().block();
+        }
+
+        // Then
+        loadGenerator.report(System.out, Path.of("target", "loadtest"));
+        assertTrue(loadGenerator.overall().getTotalCount() > 0);
+        if (SETTINGS.maxP99 != null) {
+            assertTrue(loadGenerator.overall().getValueAtPercentile(99) <= SETTINGS.maxP99.toNanos() / 1000,
+                    "p99 above " + SETTINGS.maxP99);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.selimhorri.app.unit.budget;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.servlet.FilterChain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.selimhorri.app.budget.RequestBudget;
+import com.selimhorri.app.budget.RequestBudgetFilter;
+import com.selimhorri.app.config.budget.RequestBudgetProperties;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class RequestBudgetFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RequestBudgetFilter filter;
+
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RequestBudgetFilter(meterRegistry, new RequestBudgetProperties());
+        request = new MockHttpServletRequest("GET", "/api/payments/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/payments/{paymentId}");
+    }
+
+    private DistributionSummary summary(String name) {
+        return meterRegistry.get(name)
+                .tag("method", "GET")
+                .tag("uri", "/api/payments/{paymentId}")
+                .summary();
+    }
+
+    private static Mono<Integer> orderCall() {
+        return Mono.deferContextual(context -> {
+            RequestBudget.countOrderCall(context);
+            return Mono.just(1);
+        });
+    }
+
+    @Test
+    void doFilter_ShouldRecordTheCountsOfTheRequestByEndpoint() throws Exception {
+        // Given
+        FilterChain chain = (req, res) -> {
+            RequestBudget.countSqlStatement();
+            RequestBudget.countSqlStatement();
+            // Completes on another thread, the budget travels in the subscriber context
+            orderCall().subscribeOn(Schedulers.parallel())
+                    .contextWrite(RequestBudget::propagate)
+                    .block();
+        };
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertEquals(1, summary(RequestBudgetFilter.ORDER_CALLS_METER).totalAmount());
+        assertEquals(2, summary(RequestBudgetFilter.SQL_STATEMENTS_METER).totalAmount());
+        assertTrue(RequestBudget.current().isEmpty());
+    }
+
+    @Test
+    void doFilter_ShouldRecordTheCountsOfFailedRequestsToo() {
+        // Given
+        FilterChain chain = (req, res) -> {
+            RequestBudget.countSqlStatement();
+            throw new IllegalStateException("Handler failed");
+        };
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(request, new MockHttpServletResponse(), chain));
+        assertEquals(1, summary(RequestBudgetFilter.SQL_STATEMENTS_METER).totalAmount());
+        assertTrue(RequestBudget.current().isEmpty());
+    }
+
+    @Test
+    void countOrderCall_ShouldIgnoreCallsOutsideARequest() {
+        // When
+        orderCall().contextWrite(RequestBudget::propagate).block();
+        RequestBudget.countSqlStatement();
+
+        // Then
+        assertTrue(RequestBudget.current().isEmpty());
+    }
+}
@@ -0,0 +1,317 @@
+package com.selimhorri.app.unit.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestClientException;
+
+import com.selimhorri.app.cache.OrderCache;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.config.cache.OrderCacheProperties;
+import com.selimhorri.app.dto.OrderDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class OrderCacheTest {
+
+    @Mock
+    private OrderClient orderClient;
+
+    private OrderCacheProperties orderCacheProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OrderCache orderCache;
+
+    @BeforeEach
+    void setUp() {
+        orderCacheProperties = new OrderCacheProperties();
+        orderCacheProperties.setTtl(Map.of(
+                "ORDERED", Duration.ofMillis(50),
+                "IN_PAYMENT", Duration.ofMinutes(1)));
+        meterRegistry = new SimpleMeterRegistry();
+        orderCache = new OrderCache(orderClient, orderCacheProperties, meterRegistry);
+    }
+
+    private static OrderDto order(String status) {
+        return OrderDto.builder()
+                .orderId(1)
+                .orderStatus(status)
+                .build();
+    }
+
+    @Test
+    void get_ShouldServeRepeatedLookupsFromCache() {
+        // Given
+        when(orderClient.findById(1)).thenReturn(Mono.just(order("IN_PAYMENT")));
+
+        // When
+        Optional<OrderDto> first = orderCache.get(1);
+        Optional<OrderDto> second = orderCache.get(1);
+
+        // Then
+        assertEquals("IN_PAYMENT", first.orElseThrow().getOrderStatus());
+        assertEquals(first, second);
+        verify(orderClient, times(1)).findById(1);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", OrderCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", OrderCache.CACHE_NAME)
+                .tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void get_ShouldExpireEntriesUsingTheTtlOfTheirStatus() throws InterruptedException {
+        // Given
+        when(orderClient.findById(1)).thenReturn(Mono.just(order("ORDERED")));
+
+        // When
+        orderCache.get(1);
+        Thread.sleep(100);
+        orderCache.get(1);
+
+        // Then
+        verify(orderClient, times(2)).findById(1);
+    }
+
+    @Test
+    void getFresh_ShouldSeeTheStatusPatchedSinceTheOrderWasCachedAsOrdered() {
+        // Given
+        orderCacheProperties.setTtl(Map.of("ORDERED", Duration.ofMinutes(1)));
+        orderCache = new OrderCache(orderClient, orderCacheProperties, meterRegistry);
+        when(orderClient.findById(1))
+                .thenReturn(Mono.just(order("ORDERED")))
+                .thenReturn(Mono.just(order("IN_PAYMENT")));
+        orderCache.get(1);
+
+        // When
+        Optional<OrderDto> fresh = orderCache.getFresh(1);
+
+        // Then
+        assertEquals("IN_PAYMENT", fresh.orElseThrow().getOrderStatus());
+        assertEquals("IN_PAYMENT", orderCache.get(1).orElseThrow().getOrderStatus());
+        verify(orderClient, times(2)).findById(1);
+    }
+
+    @Test
+    void get_ShouldCacheNotFoundAnswers() {
+        // Given
+        when(orderClient.findById(1)).thenReturn(Mono.empty());
+
+        // When
+        Optional<OrderDto> first = orderCache.get(1);
+        Optional<OrderDto> second = orderCache.get(1);
+
+        // Then
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        verify(orderClient, times(1)).findById(1);
+    }
+
+    @Test
+    void get_ShouldNotCacheOtherFailures() {
+        // Given
+        when(orderClient.findById(1))
+                .thenReturn(Mono.error(new RestClientException("Service unavailable")))
+                .thenReturn(Mono.just(order("IN_PAYMENT")));
+
+        // When & Then
+        assertThrows(RestClientException.class, () -> orderCache.get(1));
+        assertTrue(orderCache.get(1).isPresent());
+        verify(orderClient, times(2)).findById(1);
+    }
+
+    @Test
+    void invalidate_ShouldForceTheNextLookupToReachOrderService() {
+        // Given
+        when(orderClient.findById(1)).thenReturn(Mono.just(order("IN_PAYMENT")));
+        orderCache.get(1);
+
+        // When
+        orderCache.invalidate(1);
+        orderCache.get(1);
+
+        // Then
+        verify(orderClient, times(2)).findById(1);
+    }
+
+    @Test
+    void get_ShouldBypassTheCacheWhenDisabled() {
+        // Given
+        orderCacheProperties.setEnabled(false);
+        when(orderClient.findById(1)).thenReturn(Mono.just(order("IN_PAYMENT")));
+
+        // When
+        orderCache.get(1);
+        orderCache.get(1);
+
+        // Then
+        verify(orderClient, times(2)).findById(1);
+    }
+
+    @Test
+    void find_ShouldShareOneInFlightLookupBetweenConcurrentCallers() {
+        // Given
+        when(orderClient.findById(1)).thenReturn(Mono.just(order("IN_PAYMENT")).delayElement(Duration.ofMillis(100)));
+
+        // When
+        List<OrderDto> result = Flux.merge(orderCache.find(1), orderCache.find(1), orderCache.find(1))
+                .collectList()
+                .block();
+
+        // Then
+        assertEquals(3, result.size());
+        verify(orderClient, times(1)).findById(1);
+    }
+
+    @Test
+    void find_ShouldKeepTheSharedLookupWhenOneCallerCancels() {
+        // Given
+        when(orderClient.findById(1)).thenReturn(Mono.just(order("IN_PAYMENT")).delayElement(Duration.ofMillis(100)));
+        orderCache.find(1).subscribe().dispose();
+
+        // When
+        Optional<OrderDto> result = orderCache.get(1);
+
+        // Then
+        assertTrue(result.isPresent());
+        verify(orderClient, times(1)).findById(1);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get(OrderCache.LOOKUPS_METER).tag("result", result).counter().count();
+    }
+
+    @Test
+    void find_ShouldCountCallersThatJoinedTheInFlightLookup() {
+        // Given
+        when(orderClient.findById(1)).thenReturn(Mono.just(order("IN_PAYMENT")).delayElement(Duration.ofMillis(100)));
+
+        // When
+        Flux.merge(orderCache.find(1), orderCache.find(1), orderCache.find(1)).blockLast();
+        orderCache.get(1);
+
+        // Then
+        assertEquals(1, lookups("called"));
+        assertEquals(2, lookups("coalesced"));
+    }
+
+    @Test
+    void find_ShouldCoalesceConcurrentLookupsWhenTheCacheIsDisabled() {
+        // Given
+        orderCacheProperties.setEnabled(false);
+        when(orderClient.findById(1)).thenReturn(Mono.just(order("IN_PAYMENT")).delayElement(Duration.ofMillis(100)));
+
+        // When
+        List<OrderDto> result = Flux.merge(orderCache.find(1), orderCache.find(1), orderCache.find(1))
+                .collectList()
+                .block();
+        orderCache.get(1);
+
+        // Then
+        assertEquals(3, result.size());
+        verify(orderClient, times(2)).findById(1);
+        assertEquals(2, lookups("called"));
+        assertEquals(2, lookups("coalesced"));
+    }
+
+    @Test
+    void find_ShouldShareTheErrorOfTheInFlightLookupWhenTheCacheIsDisabled() {
+        // Given
+        orderCacheProperties.setEnabled(false);
+        when(orderClient.findById(1)).thenReturn(Mono.<OrderDto>error(new RestClientException("Service unavailable"))
+                .delaySubscription(Duration.ofMillis(100)));
+
+        // When
+        List<String> errors = Flux.merge(
+                        orderCache.find(1).map(OrderDto::getOrderStatus).onErrorResume(e -> Mono.just(e.getMessage())),
+                        orderCache.find(1).map(OrderDto::getOrderStatus).onErrorResume(e -> Mono.just(e.getMessage())))
+                .collectList()
+                .block();
+
+        // Then
+        assertEquals(List.of("Service unavailable", "Service unavailable"), errors);
+        verify(orderClient, times(1)).findById(1);
+    }
+
+    @Test
+    void findAll_ShouldSeparateUnknownOrdersFromFailedLookups() {
+        // Given
+        when(orderClient.findById(1)).thenReturn(Mono.just(order("IN_PAYMENT")));
+        when(orderClient.findById(2)).thenReturn(Mono.empty());
+        when(orderClient.findById(3)).thenReturn(Mono.error(new RestClientException("Service unavailable")));
+
+        // When
+        Map<Integer, Optional<OrderDto>> result = orderCache.findAll(List.of(1, 2, 3), 2).block();
+
+        // Then
+        assertTrue(result.get(1).isPresent());
+        assertTrue(result.get(2).isEmpty());
+        assertFalse(result.containsKey(3));
+    }
+
+    @Test
+    void getOrStale_ShouldServeTheLastKnownOrderWhenTheLookupFails() throws InterruptedException {
+        // Given
+        when(orderClient.findById(1))
+                .thenReturn(Mono.just(order("ORDERED")))
+                .thenReturn(Mono.error(new RestClientException("Service unavailable")));
+        orderCache.get(1);
+        Thread.sleep(100);
+
+        // When
+        Optional<OrderDto> result = orderCache.getOrStale(1);
+
+        // Then
+        assertEquals("ORDERED", result.orElseThrow().getOrderStatus());
+        assertEquals(1, lookups("stale"));
+    }
+
+    @Test
+    void getOrStale_ShouldFailWhenNoOrderWasReadBeforeOrItWasInvalidated() {
+        // Given
+        when(orderClient.findById(anyInt()))
+                .thenReturn(Mono.just(order("IN_PAYMENT")))
+                .thenReturn(Mono.error(new RestClientException("Service unavailable")));
+        orderCache.get(1);
+        orderCache.invalidate(1);
+
+        // When & Then
+        assertThrows(RestClientException.class, () -> orderCache.getOrStale(1));
+        assertThrows(RestClientException.class, () -> orderCache.getOrStale(2));
+        assertEquals(0, lookups("stale"));
+    }
+
+    @Test
+    void findAllOrStale_ShouldOnlyFallBackForFailedLookups() {
+        // Given
+        when(orderClient.findById(1))
+                .thenReturn(Mono.just(order("IN_PAYMENT")))
+                .thenReturn(Mono.error(new RestClientException("Service unavailable")));
+        when(orderClient.findById(2)).thenReturn(Mono.empty());
+        orderCacheProperties.setEnabled(false);
+        orderCache.get(1);
+
+        // When
+        Map<Integer, Optional<OrderDto>> strict = orderCache.findAll(List.of(1, 2), 2).block();
+        Map<Integer, Optional<OrderDto>> stale = orderCache.findAllOrStale(List.of(1, 2), 2).block();
+
+        // Then
+        assertFalse(strict.containsKey(1));
+        assertEquals("IN_PAYMENT", stale.get(1).orElseThrow().getOrderStatus());
+        assertTrue(stale.get(2).isEmpty());
+    }
+}
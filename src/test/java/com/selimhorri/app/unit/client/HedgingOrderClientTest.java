@@ -0,0 +1,219 @@
+package com.selimhorri.app.unit.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import com.selimhorri.app.client.InstanceOrderClient;
+import com.selimhorri.app.client.impl.HedgingOrderClient;
+import com.selimhorri.app.config.client.OrderClientProperties;
+import com.selimhorri.app.dto.OrderDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class HedgingOrderClientTest {
+
+    private static final List<ServiceInstance> INSTANCES = List.of(
+            new DefaultServiceInstance("order-1", "ORDER-SERVICE", "order-host-1", 8300, false),
+            new DefaultServiceInstance("order-2", "ORDER-SERVICE", "order-host-2", 8300, false),
+            new DefaultServiceInstance("order-3", "ORDER-SERVICE", "order-host-3", 8300, false));
+
+    @Mock
+    private InstanceOrderClient delegate;
+
+    private List<ServiceInstance> instances;
+
+    private OrderClientProperties.Hedging hedging;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        hedging = new OrderClientProperties.Hedging();
+        hedging.setEnabled(true);
+        hedging.setInitialDelay(Duration.ofMillis(50));
+        hedging.setBudgetPercent(100);
+        meterRegistry = new SimpleMeterRegistry();
+        instances = INSTANCES;
+    }
+
+    private HedgingOrderClient orderClient() {
+        return new HedgingOrderClient(delegate,
+                ServiceInstanceListSuppliers.from("ORDER-SERVICE", instances.toArray(ServiceInstance[]::new)),
+                hedging, meterRegistry);
+    }
+
+    private static Mono<OrderDto> order(String status, Duration delay) {
+        return Mono.just(OrderDto.builder().orderId(1).orderStatus(status).build()).delayElement(delay);
+    }
+
+    private double hedges(String result) {
+        return meterRegistry.get(HedgingOrderClient.HEDGES_METER).tag("result", result).counter().count();
+    }
+
+    @Test
+    void findById_ShouldNotHedgeLookupsAnsweredWithinTheDelay() {
+        // Given
+        when(delegate.findById(any(ServiceInstance.class), eq(1))).thenReturn(order("IN_PAYMENT", Duration.ZERO));
+
+        // When
+        OrderDto result = orderClient().findById(1).block();
+
+        // Then
+        assertEquals("IN_PAYMENT", result.getOrderStatus());
+        verify(delegate, times(1)).findById(any(ServiceInstance.class), eq(1));
+        assertEquals(0, hedges("sent"));
+    }
+
+    @Test
+    void findById_ShouldAnswerWithTheHedgeWhenTheFirstCallIsSlow() {
+        // Given
+        when(delegate.findById(any(ServiceInstance.class), eq(1)))
+                .thenReturn(order("SLOW", Duration.ofSeconds(5)))
+                .thenReturn(order("HEDGED", Duration.ZERO));
+
+        // When
+        OrderDto result = orderClient().findById(1).block(Duration.ofSeconds(1));
+
+        // Then
+        assertEquals("HEDGED", result.getOrderStatus());
+        assertEquals(1, hedges("sent"));
+        assertEquals(1, hedges("won"));
+    }
+
+    @Test
+    void findById_ShouldWaitForTheFirstCallWhenTheHedgeFails() {
+        // Given
+        when(delegate.findById(any(ServiceInstance.class), eq(1)))
+                .thenReturn(order("SLOW", Duration.ofMillis(200)))
+                .thenReturn(Mono.error(new IllegalStateException("Service unavailable")));
+
+        // When
+        OrderDto result = orderClient().findById(1).block(Duration.ofSeconds(1));
+
+        // Then
+        assertEquals("SLOW", result.getOrderStatus());
+        assertEquals(1, hedges("sent"));
+        assertEquals(0, hedges("won"));
+    }
+
+    @Test
+    void findById_ShouldNotHedgeBeyondTheBudget() {
+        // Given
+        hedging.setBudgetPercent(50);
+        when(delegate.findById(any(ServiceInstance.class), eq(1))).thenReturn(order("IN_PAYMENT", Duration.ofMillis(150)));
+        HedgingOrderClient orderClient = orderClient();
+
+        // When
+        orderClient.findById(1).block();
+        orderClient.findById(1).block();
+
+        // Then
+        assertEquals(1, hedges("sent"));
+        assertEquals(1, hedges("throttled"));
+        verify(delegate, times(3)).findById(any(ServiceInstance.class), eq(1));
+    }
+
+    @Test
+    void findById_ShouldKeepAnEmptyFirstAnswer() {
+        // Given
+        when(delegate.findById(any(ServiceInstance.class), eq(1))).thenReturn(Mono.empty());
+
+        // When & Then
+        assertTrue(orderClient().findById(1).blockOptional().isEmpty());
+        assertEquals(0, hedges("sent"));
+    }
+
+    @Test
+    void findById_ShouldUseThePercentileOfRecentLatenciesOnceEnoughAreTimed() {
+        // Given
+        hedging.setMinSamples(5);
+        hedging.setInitialDelay(Duration.ofSeconds(10));
+        when(delegate.findById(any(ServiceInstance.class), eq(1)))
+                .thenReturn(order("FAST", Duration.ofMillis(20)), order("FAST", Duration.ofMillis(20)),
+                        order("FAST", Duration.ofMillis(20)), order("FAST", Duration.ofMillis(20)),
+                        order("FAST", Duration.ofMillis(20)))
+                .thenReturn(order("SLOW", Duration.ofSeconds(5)))
+                .thenReturn(order("HEDGED", Duration.ZERO));
+        HedgingOrderClient orderClient = orderClient();
+        for (int i = 0; i < 5; i++) {
+            orderClient.findById(1).block();
+        }
+
+        // When
+        OrderDto result = orderClient.findById(1).block(Duration.ofSeconds(2));
+
+        // Then
+        assertEquals("HEDGED", result.getOrderStatus());
+        assertEquals(1, hedges("won"));
+    }
+
+    @Test
+    void findById_ShouldSendTheHedgeToAnotherInstanceThanTheFirstCall() {
+        // Given
+        when(delegate.findById(any(ServiceInstance.class), eq(1)))
+                .thenReturn(order("SLOW", Duration.ofSeconds(5)), order("HEDGED", Duration.ZERO),
+                        order("SLOW", Duration.ofSeconds(5)), order("HEDGED", Duration.ZERO),
+                        order("SLOW", Duration.ofSeconds(5)), order("HEDGED", Duration.ZERO));
+        HedgingOrderClient orderClient = orderClient();
+
+        // When
+        for (int i = 0; i < INSTANCES.size(); i++) {
+            orderClient.findById(1).block(Duration.ofSeconds(1));
+        }
+
+        // Then
+        ArgumentCaptor<ServiceInstance> targets = ArgumentCaptor.forClass(ServiceInstance.class);
+        verify(delegate, times(6)).findById(targets.capture(), eq(1));
+        for (int i = 0; i < 6; i += 2) {
+            assertNotEquals(targets.getAllValues().get(i).getInstanceId(),
+                    targets.getAllValues().get(i + 1).getInstanceId());
+        }
+        assertEquals(3, hedges("won"));
+    }
+
+    @Test
+    void findById_ShouldLeaveASingleInstanceToTheLoadBalancer() {
+        // Given
+        instances = INSTANCES.subList(0, 1);
+        when(delegate.findById(1)).thenReturn(order("SLOW", Duration.ofMillis(150)));
+
+        // When
+        OrderDto result = orderClient().findById(1).block(Duration.ofSeconds(1));
+
+        // Then
+        assertEquals("SLOW", result.getOrderStatus());
+        verify(delegate, never()).findById(any(ServiceInstance.class), anyInt());
+        assertEquals(0, hedges("sent"));
+    }
+
+    @Test
+    void findById_ShouldNotTimeTheFirstCallCancelledByItsHedge() {
+        // Given
+        when(delegate.findById(any(ServiceInstance.class), eq(1)))
+                .thenReturn(order("SLOW", Duration.ofSeconds(5)))
+                .thenReturn(order("HEDGED", Duration.ZERO));
+
+        // When
+        orderClient().findById(1).block(Duration.ofSeconds(1));
+
+        // Then
+        assertEquals(1, hedges("won"));
+        assertEquals(0, meterRegistry.get(HedgingOrderClient.LATENCY_METER).timer().count());
+    }
+}
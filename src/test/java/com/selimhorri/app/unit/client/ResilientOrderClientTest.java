@@ -0,0 +1,124 @@
+package com.selimhorri.app.unit.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestClientException;
+
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.client.impl.ResilientOrderClient;
+import com.selimhorri.app.dto.OrderDto;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientOrderClientTest {
+
+    @Mock
+    private OrderClient delegate;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private ResilientOrderClient orderClient;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        orderClient = new ResilientOrderClient(delegate, circuitBreakerRegistry,
+                BulkheadRegistry.of(BulkheadConfig.custom()
+                        .maxConcurrentCalls(1)
+                        .maxWaitDuration(Duration.ZERO)
+                        .build()),
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom()
+                        .timeoutDuration(Duration.ofMillis(100))
+                        .build()));
+    }
+
+    private CircuitBreaker circuitBreaker() {
+        return circuitBreakerRegistry.circuitBreaker(ResilientOrderClient.INSTANCE_NAME);
+    }
+
+    @Test
+    void findById_ShouldPassThroughAnswersOfOrderService() {
+        // Given
+        when(delegate.findById(1)).thenReturn(Mono.just(OrderDto.builder().orderId(1).build()));
+        when(delegate.findById(2)).thenReturn(Mono.empty());
+
+        // When & Then
+        assertEquals(1, orderClient.findById(1).block().getOrderId());
+        assertTrue(orderClient.findById(2).blockOptional().isEmpty());
+        assertEquals(2, circuitBreaker().getMetrics().getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    void findById_ShouldFailFastWithoutCallingOrderServiceOnceTheBreakerIsOpen() {
+        // Given
+        when(delegate.findById(1)).thenReturn(Mono.error(new RestClientException("Service unavailable")));
+        assertThrows(RestClientException.class, () -> orderClient.findById(1).block());
+        assertThrows(RestClientException.class, () -> orderClient.findById(1).block());
+
+        // When
+        RestClientException exception = assertThrows(RestClientException.class,
+                () -> orderClient.updateStatus(1).block());
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker().getState());
+        assertTrue(exception.getCause() instanceof CallNotPermittedException);
+        verify(delegate, times(2)).findById(1);
+        verify(delegate, never()).updateStatus(1);
+    }
+
+    @Test
+    void findById_ShouldTimeOutSlowCallsAndCountThemAsFailures() {
+        // Given
+        when(delegate.findById(1)).thenReturn(Mono.<OrderDto>never());
+
+        // When
+        RestClientException exception = assertThrows(RestClientException.class,
+                () -> orderClient.findById(1).block());
+
+        // Then
+        assertTrue(exception.getCause() instanceof TimeoutException);
+        assertEquals(1, circuitBreaker().getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void findById_ShouldRejectCallsBeyondTheBulkheadWithoutTrippingTheBreaker() {
+        // Given
+        when(delegate.findById(1)).thenReturn(Mono.just(OrderDto.builder().orderId(1).build())
+                .delayElement(Duration.ofMillis(50)));
+        orderClient.findById(1).subscribe();
+
+        // When
+        RestClientException exception = assertThrows(RestClientException.class,
+                () -> orderClient.findById(1).block());
+
+        // Then
+        assertTrue(exception.getCause() instanceof BulkheadFullException);
+        assertEquals(0, circuitBreaker().getMetrics().getNumberOfFailedCalls());
+        verify(delegate, times(1)).findById(1);
+    }
+}
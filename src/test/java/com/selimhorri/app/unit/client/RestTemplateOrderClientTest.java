@@ -0,0 +1,137 @@
+package com.selimhorri.app.unit.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.selimhorri.app.client.impl.RestTemplateOrderClient;
+import com.selimhorri.app.config.client.OrderClientProperties;
+import com.selimhorri.app.config.thread.VirtualThreadsProperties;
+import com.selimhorri.app.dto.OrderDto;
+
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class RestTemplateOrderClientTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private ClientHttpRequestFactory httpRequestFactory;
+
+    private OrderClientProperties orderClientProperties;
+
+    private RestTemplateOrderClient orderClient;
+
+    @BeforeEach
+    void setUp() {
+        orderClientProperties = new OrderClientProperties();
+        orderClientProperties.setBlockingPoolSize(1);
+        orderClientProperties.setBlockingQueueCapacity(1);
+        orderClient = new RestTemplateOrderClient(restTemplate, httpRequestFactory, orderClientProperties,
+                new VirtualThreadsProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderClient.destroy();
+    }
+
+    @Test
+    void findById_ShouldRunTheBlockingCallOffTheCallerThread() {
+        // Given
+        when(restTemplate.getForObject(endsWith("/1"), eq(OrderDto.class))).thenAnswer(invocation -> OrderDto.builder()
+                .orderId(1)
+                .orderDesc(Thread.currentThread().getName())
+                .build());
+
+        // When
+        OrderDto result = orderClient.findById(1).block();
+
+        // Then
+        assertTrue(result.getOrderDesc().startsWith("order-client-"));
+    }
+
+    @Test
+    void findByIdOnInstance_ShouldCallThatInstanceWithoutTheLoadBalancedTemplate() throws Exception {
+        // Given
+        ServiceInstance instance = new DefaultServiceInstance("order-2", "ORDER-SERVICE", "order-host-2", 8300, false);
+        MockClientHttpRequest request = new MockClientHttpRequest();
+        MockClientHttpResponse response = new MockClientHttpResponse(
+                "{\"orderId\":1,\"orderStatus\":\"ORDERED\"}".getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        request.setResponse(response);
+        when(httpRequestFactory.createRequest(any(URI.class), eq(HttpMethod.GET))).thenReturn(request);
+
+        // When
+        OrderDto result = orderClient.findById(instance, 1).block();
+
+        // Then
+        assertEquals("ORDERED", result.getOrderStatus());
+        verify(httpRequestFactory).createRequest(
+                URI.create("http://order-host-2:8300/order-service/api/orders/1"), HttpMethod.GET);
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void findById_ShouldCompleteEmptyWhenTheOrderDoesNotExist() {
+        // Given
+        when(restTemplate.getForObject(endsWith("/1"), eq(OrderDto.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        // When & Then
+        assertTrue(orderClient.findById(1).blockOptional().isEmpty());
+    }
+
+    @Test
+    void findById_ShouldRejectCallsBeyondTheQueueCapacity() throws InterruptedException {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(restTemplate.getForObject(anyString(), eq(OrderDto.class))).thenAnswer(invocation -> {
+            release.await();
+            return OrderDto.builder().orderId(1).build();
+        });
+        Mono<OrderDto> running = orderClient.findById(1).cache();
+        Mono<OrderDto> queued = orderClient.findById(2).cache();
+        running.subscribe();
+        queued.subscribe();
+
+        // When & Then
+        assertThrows(RejectedExecutionException.class, () -> orderClient.findById(3).block());
+        release.countDown();
+        assertNotNull(running.block());
+        assertNotNull(queued.block());
+    }
+
+    @Test
+    void updateStatus_ShouldPatchTheOrderStatus() {
+        // When
+        orderClient.updateStatus(1).block();
+
+        // Then
+        verify(restTemplate).patchForObject(endsWith("/1/status"), isNull(), eq(Void.class));
+    }
+}
@@ -0,0 +1,147 @@
+package com.selimhorri.app.unit.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.client.impl.WebClientOrderClient;
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.OrderDto;
+
+import reactor.core.publisher.Mono;
+
+class WebClientOrderClientTest {
+
+    private final List<ClientRequest> requests = new ArrayList<>();
+
+    private WebClientOrderClient client(HttpStatus status, String body) {
+        return new WebClientOrderClient(WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return Mono.just(ClientResponse.create(status)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(body)
+                    .build());
+        }));
+    }
+
+    @Test
+    void findById_ShouldGetTheOrderFromOrderService() {
+        // When
+        OrderDto result = client(HttpStatus.OK, "{\"orderId\":1,\"orderStatus\":\"IN_PAYMENT\"}")
+                .findById(1)
+                .block();
+
+        // Then
+        assertEquals(1, result.getOrderId());
+        assertEquals("IN_PAYMENT", result.getOrderStatus());
+        assertEquals(HttpMethod.GET, requests.get(0).method());
+        assertEquals(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/1", requests.get(0).url().toString());
+    }
+
+    @Test
+    void findByIdOnInstance_ShouldCallThatInstanceWithoutTheLoadBalancer() {
+        // Given
+        LoadBalancedExchangeFilterFunction loadBalancer = (request, next) -> Mono.error(
+                new IllegalStateException("Load balanced"));
+        WebClientOrderClient client = new WebClientOrderClient(WebClient.builder()
+                .filter(loadBalancer)
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("{\"orderId\":1,\"orderStatus\":\"ORDERED\"}")
+                            .build());
+                }));
+        ServiceInstance instance = new DefaultServiceInstance("order-2", "ORDER-SERVICE", "order-host-2", 8300, false);
+
+        // When
+        OrderDto result = client.findById(instance, 1).block();
+
+        // Then
+        assertEquals("ORDERED", result.getOrderStatus());
+        assertEquals("http://order-host-2:8300/order-service/api/orders/1", requests.get(0).url().toString());
+    }
+
+    @Test
+    void findById_ShouldCompleteEmptyWhenTheOrderDoesNotExist() {
+        // When
+        Mono<OrderDto> result = client(HttpStatus.NOT_FOUND, "").findById(1);
+
+        // Then
+        assertTrue(result.blockOptional().isEmpty());
+    }
+
+    @Test
+    void findById_ShouldSignalOtherFailuresAsRestClientException() {
+        // When & Then
+        assertThrows(RestClientException.class,
+                () -> client(HttpStatus.SERVICE_UNAVAILABLE, "").findById(1).block());
+    }
+
+    @Test
+    void findAllById_ShouldSkipUnknownOrders() {
+        // Given
+        WebClientOrderClient client = new WebClientOrderClient(WebClient.builder().exchangeFunction(request -> {
+            boolean known = !request.url().getPath().endsWith("/2");
+            return Mono.just(ClientResponse.create(known ? HttpStatus.OK : HttpStatus.NOT_FOUND)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(known ? "{\"orderId\":1}" : "")
+                    .build());
+        }));
+
+        // When
+        List<OrderDto> result = client.findAllById(Set.of(1, 2, 3), 2).collectList().block();
+
+        // Then
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void constructor_ShouldLeaveTheSharedBuilderWithoutABaseUrl() {
+        // Given
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        });
+
+        // When
+        new WebClientOrderClient(webClientBuilder);
+        webClientBuilder.build().get().uri("/other").retrieve().toBodilessEntity().block();
+
+        // Then
+        assertEquals("/other", requests.get(0).url().toString());
+    }
+
+    @Test
+    void updateStatus_ShouldPatchTheOrderStatus() {
+        // When
+        client(HttpStatus.OK, "").updateStatus(1).block();
+
+        // Then
+        assertEquals(HttpMethod.PATCH, requests.get(0).method());
+        assertEquals(AppConstant.DiscoveredDomainsApi.ORDER_SERVICE_API_URL + "/1/status",
+                requests.get(0).url().toString());
+    }
+
+    @Test
+    void updateStatus_ShouldSignalFailuresAsRestClientException() {
+        // When & Then
+        assertThrows(RestClientException.class,
+                () -> client(HttpStatus.INTERNAL_SERVER_ERROR, "").updateStatus(1).block());
+    }
+}
@@ -0,0 +1,105 @@
+package com.selimhorri.app.unit.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.Configurable;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.selimhorri.app.config.client.ClientConfig;
+import com.selimhorri.app.config.client.HttpClientProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.netty.resources.ConnectionProvider;
+
+class ClientConfigTest {
+
+    private final ClientConfig clientConfig = new ClientConfig();
+
+    private HttpClientProperties httpClientProperties;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @BeforeEach
+    void setUp() {
+        httpClientProperties = new HttpClientProperties();
+        httpClientProperties.setMaxTotal(40);
+        httpClientProperties.setMaxPerRoute(10);
+        httpClientProperties.setConnectTimeout(Duration.ofMillis(100));
+        httpClientProperties.setConnectionRequestTimeout(Duration.ofMillis(200));
+        httpClientProperties.setSocketTimeout(Duration.ofMillis(300));
+        connectionManager = clientConfig.httpClientConnectionManagerBean(httpClientProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionManager.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void webClientBuilder_ShouldApplyTheWebClientCustomizers() {
+        // Given
+        WebClientCustomizer customizer = mock(WebClientCustomizer.class);
+        ObjectProvider<WebClientCustomizer> customizers = mock(ObjectProvider.class);
+        when(customizers.orderedStream()).thenReturn(Stream.of(customizer));
+        ConnectionProvider connectionProvider = ConnectionProvider.create("test", 1);
+
+        // When
+        WebClient.Builder result = clientConfig.webClientBuilderBean(connectionProvider, httpClientProperties, customizers);
+
+        // Then
+        verify(customizer).customize(same(result));
+        connectionProvider.dispose();
+    }
+
+    @Test
+    void connectionManager_ShouldApplyPoolLimits() {
+        assertEquals(40, connectionManager.getMaxTotal());
+        assertEquals(10, connectionManager.getDefaultMaxPerRoute());
+    }
+
+    @Test
+    void requestFactory_ShouldApplyTimeouts() throws Exception {
+        // When
+        HttpComponentsClientHttpRequestFactory requestFactory =
+                clientConfig.httpRequestFactoryBean(connectionManager, httpClientProperties);
+        RequestConfig requestConfig = ((Configurable) requestFactory.getHttpClient()).getConfig();
+
+        // Then
+        assertEquals(100, requestConfig.getConnectTimeout());
+        assertEquals(200, requestConfig.getConnectionRequestTimeout());
+        assertEquals(300, requestConfig.getSocketTimeout());
+        requestFactory.destroy();
+    }
+
+    @Test
+    void poolMetrics_ShouldExposeLeasedPendingAndAvailableConnections() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        // When
+        clientConfig.httpClientConnectionPoolMetricsBean(connectionManager).bindTo(meterRegistry);
+
+        // Then
+        assertEquals(40.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", ClientConfig.HTTP_CLIENT_POOL_NAME).gauge().value());
+        assertEquals(0.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "leased").gauge().value());
+        assertEquals(0.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "available").gauge().value());
+        assertEquals(0.0, meterRegistry.get("httpcomponents.httpclient.pool.total.pending").gauge().value());
+    }
+}
@@ -0,0 +1,33 @@
+package com.selimhorri.app.unit.helper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.helper.PaymentCursorHelper;
+
+class PaymentCursorHelperTest {
+
+    @Test
+    void decode_ShouldReturnTheEncodedPaymentId() {
+        assertEquals(42, PaymentCursorHelper.decode(PaymentCursorHelper.encode(42)));
+    }
+
+    @Test
+    void encode_ShouldProduceAnUrlSafeOpaqueValue() {
+        String cursor = PaymentCursorHelper.encode(Integer.MAX_VALUE);
+
+        assertFalse(cursor.contains(String.valueOf(Integer.MAX_VALUE)));
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void decode_ShouldRejectForeignValues() {
+        assertThrows(IllegalArgumentException.class, () -> PaymentCursorHelper.decode("42"));
+        assertThrows(IllegalArgumentException.class, () -> PaymentCursorHelper.decode("%%%"));
+        assertThrows(IllegalArgumentException.class,
+                () -> PaymentCursorHelper.decode(Base64.getUrlEncoder().encodeToString("p:abc".getBytes())));
+    }
+}
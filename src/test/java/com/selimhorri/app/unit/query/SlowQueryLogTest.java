@@ -0,0 +1,110 @@
+package com.selimhorri.app.unit.query;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.config.query.QueryStatisticsProperties;
+import com.selimhorri.app.query.SlowQuery;
+import com.selimhorri.app.query.SlowQueryLog;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+class SlowQueryLogTest {
+
+    private static final String SQL = "select * from payments where payment_status = ? and order_id = ?";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryStatisticsProperties properties = new QueryStatisticsProperties();
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() {
+        properties.setSlowThreshold(Duration.ofMillis(100));
+        properties.setSlowLogSize(2);
+        properties.setMaxParameterSets(2);
+        slowQueryLog = new SlowQueryLog(properties, meterRegistry);
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsedMillis);
+        executionInfo.setSuccess(true);
+        return executionInfo;
+    }
+
+    private static QueryInfo query(Object... statusAndOrderIdPairs) throws Exception {
+        QueryInfo queryInfo = new QueryInfo(SQL);
+        for (int i = 0; i < statusAndOrderIdPairs.length; i += 2) {
+            Object orderId = statusAndOrderIdPairs[i + 1];
+            queryInfo.getParametersList().add(List.of(
+                    new ParameterSetOperation(PreparedStatement.class.getMethod("setString", int.class, String.class),
+                            new Object[] { 1, statusAndOrderIdPairs[i] }),
+                    orderId == null
+                            ? new ParameterSetOperation(PreparedStatement.class.getMethod("setNull", int.class, int.class),
+                                    new Object[] { 2, Types.INTEGER })
+                            : new ParameterSetOperation(PreparedStatement.class.getMethod("setInt", int.class, int.class),
+                                    new Object[] { 2, orderId })));
+        }
+        return queryInfo;
+    }
+
+    @Test
+    void afterQuery_ShouldIgnoreStatementsUnderTheThreshold() throws Exception {
+        // When
+        slowQueryLog.afterQuery(execution(99), List.of(query("IN_PROGRESS", 1)));
+
+        // Then
+        assertTrue(slowQueryLog.recent().isEmpty());
+        assertEquals(0, meterRegistry.get(SlowQueryLog.SLOW_QUERIES_METER).counter().count());
+    }
+
+    @Test
+    void afterQuery_ShouldKeepSlowStatementsWithTheirParameters() throws Exception {
+        // When
+        slowQueryLog.afterQuery(execution(100), List.of(query("IN_PROGRESS", 1, "COMPLETED", null, "CANCELED", 3)));
+
+        // Then
+        SlowQuery slowQuery = slowQueryLog.recent().get(0);
+        assertEquals(100, slowQuery.getElapsedMillis());
+        assertEquals(List.of(SQL), slowQuery.getQueries());
+        assertEquals(List.of(List.of("IN_PROGRESS", "1"), List.of("COMPLETED", "null")), slowQuery.getParameters());
+        assertEquals(1, meterRegistry.get(SlowQueryLog.SLOW_QUERIES_METER).counter().count());
+    }
+
+    @Test
+    void afterQuery_ShouldOmitParametersWhenCaptureIsOff() throws Exception {
+        // Given
+        properties.setCaptureParameters(false);
+
+        // When
+        slowQueryLog.afterQuery(execution(150), List.of(query("IN_PROGRESS", 1)));
+
+        // Then
+        assertTrue(slowQueryLog.recent().get(0).getParameters().isEmpty());
+    }
+
+    @Test
+    void recent_ShouldKeepOnlyTheMostRecentStatementsNewestFirst() throws Exception {
+        // When
+        slowQueryLog.afterQuery(execution(101), List.of(query("IN_PROGRESS", 1)));
+        slowQueryLog.afterQuery(execution(102), List.of(query("IN_PROGRESS", 2)));
+        slowQueryLog.afterQuery(execution(103), List.of(query("IN_PROGRESS", 3)));
+
+        // Then
+        assertEquals(List.of(103L, 102L), slowQueryLog.recent().stream()
+                .map(SlowQuery::getElapsedMillis)
+                .collect(Collectors.toList()));
+    }
+}
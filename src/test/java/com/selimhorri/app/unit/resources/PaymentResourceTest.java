@@ -3,27 +3,49 @@ package com.selimhorri.app.unit.resources;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.selimhorri.app.config.payment.PaymentProperties;
 import com.selimhorri.app.domain.PaymentStatus;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.response.PaymentBatchItemResponse;
+import com.selimhorri.app.dto.response.PaymentStatusUpdateResponse;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 import com.selimhorri.app.exception.wrapper.PaymentServiceException;
 import com.selimhorri.app.resource.PaymentResource;
+import com.selimhorri.app.service.IdempotencyService;
 import com.selimhorri.app.service.PaymentService;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +54,15 @@ class PaymentResourceTest {
     @Mock
     private PaymentService paymentService;
 
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Spy
+    private PaymentProperties paymentProperties = new PaymentProperties();
+
     @InjectMocks
     private PaymentResource paymentResource;
 
@@ -91,6 +122,47 @@ class PaymentResourceTest {
         verify(paymentService).findAll();
     }
 
+    @Test
+    void findAllPage_ShouldReturnPageWithNextCursor() {
+        // Given
+        when(paymentService.findAll("cursor", 1))
+                .thenReturn(new DtoCursorPageResponse<>(paymentList, "next-cursor"));
+
+        // When
+        ResponseEntity<DtoCursorPageResponse<PaymentDto>> response = paymentResource.findAll(1, "cursor");
+
+        // Then
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getCollection().size());
+        assertEquals("next-cursor", response.getBody().getNext());
+        verify(paymentService).findAll("cursor", 1);
+    }
+
+    @Test
+    void streamAll_ShouldWriteOnePaymentPerLine() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<PaymentDto> consumer = invocation.getArgument(0);
+            consumer.accept(paymentDto);
+            consumer.accept(paymentDto);
+            return null;
+        }).when(paymentService).streamAll(any());
+
+        // When
+        ResponseEntity<StreamingResponseBody> response = paymentResource.streamAll();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(PaymentResource.APPLICATION_NDJSON_VALUE, response.getHeaders().getContentType().toString());
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"paymentId\":1,"));
+        verify(paymentService).streamAll(any());
+    }
+
     @Test
     void findById_ShouldReturnPaymentWhenFound() {
         // Given
@@ -107,6 +179,31 @@ class PaymentResourceTest {
         verify(paymentService).findById(1);
     }
 
+    @Test
+    void findByOrderId_ShouldReturnThePaymentsOfTheOrder() {
+        // Given
+        when(paymentService.findAllByOrderIds(List.of(1), true)).thenReturn(List.of(paymentDto));
+
+        // When
+        ResponseEntity<DtoCollectionResponse<PaymentDto>> response = paymentResource.findByOrderId(1, true);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(paymentDto), response.getBody().getCollection());
+    }
+
+    @Test
+    void findByOrderIds_ShouldReturnThePaymentsOfAllOrders() {
+        // Given
+        when(paymentService.findAllByOrderIds(List.of(1, 2), false)).thenReturn(List.of(paymentDto));
+
+        // When
+        ResponseEntity<DtoCollectionResponse<PaymentDto>> response = paymentResource.findByOrderIds(List.of(1, 2), false);
+
+        // Then
+        assertEquals(List.of(paymentDto), response.getBody().getCollection());
+    }
+
     @Test
     void findById_ShouldThrowExceptionWhenPaymentNotFound() {
         // Given
@@ -151,7 +248,7 @@ class PaymentResourceTest {
         when(paymentService.save(paymentDto)).thenReturn(savedPaymentDto);
 
         // When
-        ResponseEntity<PaymentDto> response = paymentResource.save(paymentDto);
+        ResponseEntity<PaymentDto> response = paymentResource.save(null, paymentDto);
 
         // Then
         assertNotNull(response);
@@ -161,6 +258,74 @@ class PaymentResourceTest {
     }
 
 
+    @Test
+    void save_ShouldGoThroughIdempotencyServiceWhenKeyIsGiven() {
+        // Given
+        PaymentDto savedPaymentDto = PaymentDto.builder()
+                .paymentId(1)
+                .paymentStatus(PaymentStatus.NOT_STARTED)
+                .build();
+        when(idempotencyService.execute(eq("key-1"), eq(paymentDto), eq(PaymentDto.class), any()))
+                .thenReturn(savedPaymentDto);
+
+        // When
+        ResponseEntity<PaymentDto> response = paymentResource.save("key-1", paymentDto);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(savedPaymentDto, response.getBody());
+        verify(paymentService, never()).save(any());
+    }
+
+    @Test
+    void saveAll_ShouldReturnOneResultPerItem() {
+        // Given
+        List<PaymentBatchItemResponse> results = List.of(
+                PaymentBatchItemResponse.created(0, paymentDto),
+                PaymentBatchItemResponse.rejected(1, "Order with ID 2 not found"));
+        when(paymentService.saveAll(anyList())).thenReturn(results);
+
+        // When
+        ResponseEntity<DtoCollectionResponse<PaymentBatchItemResponse>> response =
+                paymentResource.saveAll(List.of(paymentDto, paymentDto));
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody().getCollection());
+    }
+
+    @Test
+    void updateStatusBulk_ShouldReturnOneResultPerPaymentId() {
+        // Given
+        List<PaymentStatusUpdateResponse> results = List.of(
+                PaymentStatusUpdateResponse.updated(1, PaymentStatus.IN_PROGRESS),
+                PaymentStatusUpdateResponse.notFound(2));
+        when(paymentService.updateStatus(List.of(1, 2))).thenReturn(results);
+
+        // When
+        ResponseEntity<DtoCollectionResponse<PaymentStatusUpdateResponse>> response =
+                paymentResource.updateStatus(List.of(1, 2));
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody().getCollection());
+    }
+
+    @Test
+    void cancelBulk_ShouldReturnOneResultPerPaymentId() {
+        // Given
+        List<PaymentStatusUpdateResponse> results = List.of(
+                PaymentStatusUpdateResponse.updated(1, PaymentStatus.CANCELED));
+        when(paymentService.cancel(List.of(1))).thenReturn(results);
+
+        // When
+        ResponseEntity<DtoCollectionResponse<PaymentStatusUpdateResponse>> response =
+                paymentResource.cancel(List.of(1));
+
+        // Then
+        assertEquals(results, response.getBody().getCollection());
+    }
+
     @Test
     void save_ShouldThrowExceptionWhenServiceFails() {
         // Given
@@ -170,7 +335,7 @@ class PaymentResourceTest {
         // When & Then
         PaymentServiceException exception = assertThrows(
                 PaymentServiceException.class,
-                () -> paymentResource.save(paymentDto)
+                () -> paymentResource.save(null, paymentDto)
         );
         
         assertEquals("Failed to save payment", exception.getMessage());
@@ -337,4 +502,68 @@ class PaymentResourceTest {
         
         verify(paymentService, never()).deleteById(anyInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByIdAsync_ShouldSetTheResultWhenTheFutureCompletes() {
+        // Given
+        CompletableFuture<PaymentDto> future = new CompletableFuture<>();
+        when(paymentService.findByIdAsync(1)).thenReturn(future);
+
+        // When
+        DeferredResult<ResponseEntity<PaymentDto>> result = paymentResource.findByIdAsync("1");
+
+        // Then
+        assertFalse(result.hasResult());
+        future.complete(paymentDto);
+        assertEquals(ResponseEntity.ok(paymentDto), result.getResult());
+    }
+
+    @Test
+    void findByIdAsync_ShouldSetTheFailureAsErrorResult() {
+        // Given
+        PaymentServiceException failure = new PaymentServiceException("Could not fetch order information for payment");
+        when(paymentService.findByIdAsync(1)).thenReturn(CompletableFuture.failedFuture(failure));
+
+        // When
+        DeferredResult<ResponseEntity<PaymentDto>> result = paymentResource.findByIdAsync("1");
+
+        // Then
+        assertSame(failure, result.getResult());
+    }
+
+    @Test
+    void findAllAsync_ShouldWrapThePaymentsInACollectionResponse() {
+        // Given
+        when(paymentService.findAllAsync()).thenReturn(CompletableFuture.completedFuture(paymentList));
+
+        // When
+        DeferredResult<ResponseEntity<DtoCollectionResponse<PaymentDto>>> result = paymentResource.findAllAsync();
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ResponseEntity<DtoCollectionResponse<PaymentDto>> response =
+                (ResponseEntity<DtoCollectionResponse<PaymentDto>>) result.getResult();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(paymentList, response.getBody().getCollection());
+    }
+
+    @Test
+    void findAllAsync_ShouldCancelTheServiceFutureOnTimeout() throws Exception {
+        // Given
+        CompletableFuture<List<PaymentDto>> future = new CompletableFuture<>();
+        when(paymentService.findAllAsync()).thenReturn(future);
+        MvcResult mvcResult = MockMvcBuilders.standaloneSetup(paymentResource).build()
+                .perform(get("/api/payments/async"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // When
+        MockAsyncContext asyncContext = (MockAsyncContext) mvcResult.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        // Then
+        assertTrue(future.isCancelled());
+    }
+}
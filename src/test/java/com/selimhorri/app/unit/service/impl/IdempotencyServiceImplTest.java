@@ -0,0 +1,264 @@
+package com.selimhorri.app.unit.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.config.idempotency.IdempotencyProperties;
+import com.selimhorri.app.domain.IdempotencyKey;
+import com.selimhorri.app.domain.IdempotencyKeyStatus;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.exception.wrapper.IdempotencyConflictException;
+import com.selimhorri.app.repository.IdempotencyKeyRepository;
+import com.selimhorri.app.service.impl.IdempotencyServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    private PaymentDto request;
+
+    private PaymentDto response;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(idempotencyKeyRepository, new IdempotencyProperties(),
+                new ObjectMapper(), TransactionOperations.withoutTransaction());
+        request = PaymentDto.builder().isPayed(false).build();
+        response = PaymentDto.builder().paymentId(1).paymentStatus(PaymentStatus.NOT_STARTED).build();
+    }
+
+    private IdempotencyKey storedKey(IdempotencyKeyStatus status, String fingerprint, String responseBody) {
+        return IdempotencyKey.builder()
+                .idempotencyKey("key-1")
+                .requestFingerprint(fingerprint)
+                .keyStatus(status)
+                .responseBody(responseBody)
+                .createdAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+    }
+
+    private String fingerprintOfFirstRun() {
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.empty());
+        idempotencyService.execute("key-1", request, PaymentDto.class, complete -> response);
+        ArgumentCaptor<IdempotencyKey> captor = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository).saveAndFlush(captor.capture());
+        return captor.getValue().getRequestFingerprint();
+    }
+
+    @Test
+    void execute_ShouldRunTheActionAndReserveTheKeyOnFirstUse() {
+        // Given
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.empty());
+
+        // When
+        PaymentDto result = idempotencyService.execute("key-1", request, PaymentDto.class, complete -> response);
+
+        // Then
+        assertEquals(response, result);
+        ArgumentCaptor<IdempotencyKey> captor = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository).saveAndFlush(captor.capture());
+        assertEquals(IdempotencyKeyStatus.IN_PROGRESS, captor.getValue().getKeyStatus());
+        assertEquals(64, captor.getValue().getRequestFingerprint().length());
+    }
+
+    @Test
+    void execute_ShouldReplayTheStoredResponseWithoutRunningTheAction() throws Exception {
+        // Given
+        String fingerprint = fingerprintOfFirstRun();
+        String responseBody = new ObjectMapper().writeValueAsString(response);
+        when(idempotencyKeyRepository.findById("key-1"))
+                .thenReturn(Optional.of(storedKey(IdempotencyKeyStatus.COMPLETED, fingerprint, responseBody)));
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        PaymentDto result = idempotencyService.execute("key-1", request, PaymentDto.class, complete -> {
+            runs.incrementAndGet();
+            return response;
+        });
+
+        // Then
+        assertEquals(response, result);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void execute_ShouldRejectTheKeyReusedForADifferentRequest() {
+        // Given
+        when(idempotencyKeyRepository.findById("key-1"))
+                .thenReturn(Optional.of(storedKey(IdempotencyKeyStatus.COMPLETED, "other", "{}")));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyService.execute("key-1", request, PaymentDto.class, complete -> response));
+    }
+
+    @Test
+    void execute_ShouldRejectTheKeyWhileTheFirstRequestIsInProgress() {
+        // Given
+        String fingerprint = fingerprintOfFirstRun();
+        when(idempotencyKeyRepository.findById("key-1"))
+                .thenReturn(Optional.of(storedKey(IdempotencyKeyStatus.IN_PROGRESS, fingerprint, null)));
+
+        // When & Then
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute("key-1", request, PaymentDto.class, complete -> response));
+    }
+
+    @Test
+    void execute_ShouldReportAConflictWhenAConcurrentRequestReservedTheKeyFirst() {
+        // Given
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // When & Then
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute("key-1", request, PaymentDto.class, complete -> response));
+    }
+
+    @Test
+    void execute_ShouldTakeOverAKeyLeftInProgressPastItsLease() {
+        // Given
+        String fingerprint = fingerprintOfFirstRun();
+        IdempotencyKey abandoned = storedKey(IdempotencyKeyStatus.IN_PROGRESS, fingerprint, null);
+        abandoned.setCreatedAt(Instant.now().minus(new IdempotencyProperties().getInProgressTimeout()).minusSeconds(1));
+        when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.of(abandoned));
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        PaymentDto result = idempotencyService.execute("key-1", request, PaymentDto.class, complete -> {
+            runs.incrementAndGet();
+            return response;
+        });
+
+        // Then
+        assertEquals(response, result);
+        assertEquals(1, runs.get());
+        verify(idempotencyKeyRepository).delete(abandoned);
+        verify(idempotencyKeyRepository, times(2)).saveAndFlush(any());
+    }
+
+    @Test
+    void execute_ShouldLeaveTheKeyAloneOnceAnotherRequestTookItOver() {
+        // Given
+        IdempotencyKey takenOver = storedKey(IdempotencyKeyStatus.IN_PROGRESS, "other", null);
+        takenOver.setCreatedAt(Instant.now().plusSeconds(90));
+        when(idempotencyKeyRepository.findById("key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(takenOver));
+
+        // When
+        idempotencyService.execute("key-1", request, PaymentDto.class, complete -> response);
+
+        // Then
+        assertEquals(IdempotencyKeyStatus.IN_PROGRESS, takenOver.getKeyStatus());
+        assertNull(takenOver.getResponseBody());
+    }
+
+    @Test
+    void execute_ShouldReleaseTheKeyWhenTheActionFails() {
+        // Given
+        AtomicReference<IdempotencyKey> reserved = new AtomicReference<>();
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            reserved.set(invocation.getArgument(0));
+            return reserved.get();
+        });
+        when(idempotencyKeyRepository.findById("key-1"))
+                .thenReturn(Optional.empty())
+                .thenAnswer(invocation -> Optional.of(reserved.get()));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key-1", request,
+                PaymentDto.class, complete -> {
+                    throw new IllegalStateException("boom");
+                }));
+        verify(idempotencyKeyRepository).delete(reserved.get());
+    }
+
+    @Test
+    void execute_ShouldCompleteTheKeyWhereTheActionStoresItsResult() {
+        // Given
+        AtomicReference<IdempotencyKey> reserved = new AtomicReference<>();
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            reserved.set(invocation.getArgument(0));
+            return reserved.get();
+        });
+        when(idempotencyKeyRepository.findById("key-1"))
+                .thenReturn(Optional.empty())
+                .thenAnswer(invocation -> Optional.of(reserved.get()));
+        AtomicReference<IdempotencyKeyStatus> statusOnceStored = new AtomicReference<>();
+
+        // When
+        idempotencyService.execute("key-1", request, PaymentDto.class, complete -> {
+            complete.accept(response);
+            statusOnceStored.set(reserved.get().getKeyStatus());
+            return response;
+        });
+
+        // Then
+        assertEquals(IdempotencyKeyStatus.COMPLETED, statusOnceStored.get());
+        assertNotNull(reserved.get().getResponseBody());
+        verify(idempotencyKeyRepository, times(2)).findById("key-1");
+    }
+
+    @Test
+    void execute_ShouldFailAndReleaseTheKeyWhenCompletingItFails() {
+        // Given
+        AtomicReference<IdempotencyKey> reserved = new AtomicReference<>();
+        when(idempotencyKeyRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            reserved.set(invocation.getArgument(0));
+            return reserved.get();
+        });
+        when(idempotencyKeyRepository.findById("key-1"))
+                .thenReturn(Optional.empty())
+                .thenThrow(new QueryTimeoutException("completion failed"))
+                .thenAnswer(invocation -> Optional.of(reserved.get()));
+
+        // When & Then
+        assertThrows(QueryTimeoutException.class, () -> idempotencyService.execute("key-1", request,
+                PaymentDto.class, complete -> {
+                    complete.accept(response);
+                    return response;
+                }));
+        verify(idempotencyKeyRepository).delete(reserved.get());
+    }
+
+    @Test
+    void execute_ShouldRejectBlankKeys() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyService.execute(" ", request, PaymentDto.class, complete -> response));
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void purgeExpired_ShouldDeleteKeysPastTheirExpiry() {
+        // Given
+        when(idempotencyKeyRepository.deleteExpired(any(Instant.class))).thenReturn(3);
+
+        // When & Then
+        assertEquals(3, idempotencyService.purgeExpired());
+    }
+}
@@ -0,0 +1,195 @@
+package com.selimhorri.app.unit.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestClientException;
+
+import com.selimhorri.app.cache.OrderCache;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.config.cache.OrderCacheProperties;
+import com.selimhorri.app.config.enrichment.EnrichmentProperties;
+import com.selimhorri.app.domain.PaymentStatus;
+import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.service.impl.OrderEnrichmentServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEnrichmentServiceImplTest {
+
+    @Mock
+    private OrderClient orderClient;
+
+    private OrderCache orderCache;
+
+    private EnrichmentProperties enrichmentProperties;
+
+    private OrderEnrichmentServiceImpl orderEnrichmentService;
+
+    @BeforeEach
+    void setUp() {
+        orderCache = new OrderCache(orderClient, new OrderCacheProperties(), new SimpleMeterRegistry());
+        enrichmentProperties = new EnrichmentProperties();
+        enrichmentProperties.setParallelism(4);
+        enrichmentProperties.setDeadline(Duration.ofSeconds(2));
+        orderEnrichmentService = new OrderEnrichmentServiceImpl(orderCache, enrichmentProperties);
+    }
+
+    private static PaymentDto payment(int paymentId, int orderId) {
+        return PaymentDto.builder()
+                .paymentId(paymentId)
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.IN_PROGRESS)
+                .orderDto(OrderDto.builder().orderId(orderId).build())
+                .build();
+    }
+
+    private static OrderDto order(int orderId, String status) {
+        return OrderDto.builder()
+                .orderId(orderId)
+                .orderStatus(status)
+                .build();
+    }
+
+    @Test
+    void enrichInPayment_ShouldKeepOnlyInPaymentOrders() {
+        // Given
+        when(orderClient.findById(1)).thenReturn(Mono.just(order(1, "IN_PAYMENT")));
+        when(orderClient.findById(2)).thenReturn(Mono.just(order(2, "ORDERED")));
+
+        // When
+        List<PaymentDto> result = orderEnrichmentService.enrichInPayment(List.of(payment(1, 1), payment(2, 2)));
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getPaymentId());
+        assertEquals("IN_PAYMENT", result.get(0).getOrderDto().getOrderStatus());
+    }
+
+    @Test
+    void enrichInPayment_ShouldFetchEachOrderOnce() {
+        // Given
+        when(orderClient.findById(1)).thenReturn(Mono.just(order(1, "IN_PAYMENT")));
+
+        // When
+        List<PaymentDto> result = orderEnrichmentService.enrichInPayment(List.of(payment(1, 1), payment(2, 1)));
+
+        // Then
+        assertEquals(2, result.size());
+        verify(orderClient, times(1)).findById(1);
+    }
+
+    @Test
+    void enrichInPayment_ShouldDropPaymentsWhoseLookupFails() {
+        // Given
+        when(orderClient.findById(1)).thenReturn(Mono.error(new RestClientException("Service unavailable")));
+        when(orderClient.findById(2)).thenReturn(Mono.just(order(2, "IN_PAYMENT")));
+
+        // When
+        List<PaymentDto> result = orderEnrichmentService.enrichInPayment(List.of(payment(1, 1), payment(2, 2)));
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(2, result.get(0).getPaymentId());
+    }
+
+    @Test
+    void enrichInPayment_ShouldReturnPartialResultWhenDeadlineIsExceeded() {
+        // Given
+        enrichmentProperties.setDeadline(Duration.ofMillis(200));
+        when(orderClient.findById(1)).thenReturn(Mono.just(order(1, "IN_PAYMENT")));
+        when(orderClient.findById(2))
+                .thenReturn(Mono.just(order(2, "IN_PAYMENT")).delayElement(Duration.ofSeconds(5)));
+
+        // When
+        long start = System.nanoTime();
+        List<PaymentDto> result = orderEnrichmentService.enrichInPayment(List.of(payment(1, 1), payment(2, 2)));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getPaymentId());
+        assertTrue(elapsedMillis < 2_000, "enrichment should stop at the deadline, took " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void enrichInPayment_ShouldNotRunMoreLookupsThanParallelismAtOnce() {
+        // Given
+        enrichmentProperties.setParallelism(2);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(orderClient.findById(anyInt())).thenAnswer(invocation -> Mono.just(order(invocation.getArgument(0), "IN_PAYMENT"))
+                .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .delayElement(Duration.ofMillis(50))
+                .doOnTerminate(inFlight::decrementAndGet));
+        List<PaymentDto> payments = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            payments.add(payment(i, i));
+        }
+
+        // When
+        List<PaymentDto> result = orderEnrichmentService.enrichInPayment(payments);
+
+        // Then
+        assertEquals(6, result.size());
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void enrichInPayment_ShouldReturnEmptyListForNoPayments() {
+        // When
+        List<PaymentDto> result = orderEnrichmentService.enrichInPayment(List.of());
+
+        // Then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(orderClient);
+    }
+
+    @Test
+    void enrichInPaymentStreaming_ShouldEmitPaymentsInCompletionOrder() {
+        // Given
+        when(orderClient.findById(1))
+                .thenReturn(Mono.just(order(1, "IN_PAYMENT")).delayElement(Duration.ofMillis(300)));
+        when(orderClient.findById(2)).thenReturn(Mono.just(order(2, "IN_PAYMENT")));
+        when(orderClient.findById(3)).thenReturn(Mono.just(order(3, "ORDERED")));
+        List<Integer> emitted = new ArrayList<>();
+
+        // When
+        orderEnrichmentService.enrichInPayment(
+                List.of(payment(1, 1), payment(2, 2), payment(3, 3), payment(4, 2)),
+                p -> emitted.add(p.getPaymentId()));
+
+        // Then
+        assertEquals(List.of(2, 4, 1), emitted);
+    }
+
+    @Test
+    void enrichInPaymentStreaming_ShouldStopEmittingAtTheDeadline() {
+        // Given
+        enrichmentProperties.setDeadline(Duration.ofMillis(200));
+        when(orderClient.findById(1)).thenReturn(Mono.just(order(1, "IN_PAYMENT")));
+        when(orderClient.findById(2))
+                .thenReturn(Mono.just(order(2, "IN_PAYMENT")).delayElement(Duration.ofSeconds(5)));
+        List<Integer> emitted = new ArrayList<>();
+
+        // When
+        orderEnrichmentService.enrichInPayment(List.of(payment(1, 1), payment(2, 2)), p -> emitted.add(p.getPaymentId()));
+
+        // Then
+        assertEquals(List.of(1), emitted);
+    }
+}
@@ -0,0 +1,156 @@
+package com.selimhorri.app.unit.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.client.RestClientException;
+
+import com.selimhorri.app.cache.OrderCache;
+import com.selimhorri.app.client.OrderClient;
+import com.selimhorri.app.config.outbox.OutboxProperties;
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.OutboxEventStatus;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.service.impl.OutboxRelayServiceImpl;
+
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayServiceImplTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OrderClient orderClient;
+
+    @Mock
+    private OrderCache orderCache;
+
+    private OutboxProperties outboxProperties;
+
+    private OutboxRelayServiceImpl outboxRelayService;
+
+    @BeforeEach
+    void setUp() {
+        outboxProperties = new OutboxProperties();
+        outboxProperties.setMaxAttempts(3);
+        outboxProperties.setInitialBackoff(Duration.ofSeconds(1));
+        outboxProperties.setMaxBackoff(Duration.ofSeconds(3));
+        outboxRelayService = new OutboxRelayServiceImpl(outboxEventRepository, orderClient, orderCache,
+                outboxProperties, TransactionOperations.withoutTransaction());
+    }
+
+    private static OutboxEvent event(int outboxEventId, int orderId) {
+        OutboxEvent event = OutboxEvent.orderStatusPatch(orderId);
+        event.setOutboxEventId(outboxEventId);
+        event.setNextAttemptAt(Instant.now().minusSeconds(1));
+        return event;
+    }
+
+    @Test
+    void relay_ShouldPatchOrderStatusDeleteTheEventAndInvalidateTheCachedOrder() {
+        // Given
+        when(outboxEventRepository.findDueForUpdate(eq(OutboxEventStatus.PENDING), any(), any()))
+                .thenReturn(List.of(event(1, 10), event(2, 20)));
+        when(orderClient.updateStatus(anyInt())).thenReturn(Mono.empty());
+
+        // When
+        int delivered = outboxRelayService.relay();
+
+        // Then
+        assertEquals(2, delivered);
+        verify(orderClient).updateStatus(10);
+        verify(orderClient).updateStatus(20);
+        verify(outboxEventRepository).deleteAllByIdInBatch(argThat(ids -> ids != null
+                && List.of(1, 2).containsAll((List<?>) ids) && ((List<?>) ids).size() == 2));
+        verify(orderCache).invalidate(10);
+        verify(orderCache).invalidate(20);
+    }
+
+    @Test
+    void relay_ShouldClaimTheDueEventsUntilTheClaimTimeout() {
+        // Given
+        outboxProperties.setClaimTimeout(Duration.ofMinutes(5));
+        OutboxEvent event = event(1, 10);
+        when(outboxEventRepository.findDueForUpdate(eq(OutboxEventStatus.PENDING), any(), any()))
+                .thenReturn(List.of(event));
+        when(orderClient.updateStatus(10)).thenReturn(Mono.empty());
+        Instant before = Instant.now();
+
+        // When
+        outboxRelayService.relay();
+
+        // Then
+        assertFalse(event.getNextAttemptAt().isBefore(before.plus(Duration.ofMinutes(5))));
+        verify(outboxEventRepository).findDueForUpdate(eq(OutboxEventStatus.PENDING),
+                argThat(now -> !now.isBefore(before)), any());
+    }
+
+    @Test
+    void relay_ShouldRescheduleFailedEventsWithBackoff() {
+        // Given
+        OutboxEvent event = event(1, 10);
+        event.setAttempts(1);
+        when(outboxEventRepository.findDueForUpdate(eq(OutboxEventStatus.PENDING), any(), any()))
+                .thenReturn(List.of(event));
+        when(orderClient.updateStatus(10)).thenReturn(Mono.error(new RestClientException("Service unavailable")));
+        when(outboxEventRepository.findById(1)).thenReturn(Optional.of(event));
+        Instant before = Instant.now();
+
+        // When
+        int delivered = outboxRelayService.relay();
+
+        // Then
+        assertEquals(0, delivered);
+        assertEquals(2, event.getAttempts());
+        assertEquals(OutboxEventStatus.PENDING, event.getEventStatus());
+        assertEquals("Service unavailable", event.getLastError());
+        assertFalse(event.getNextAttemptAt().isBefore(before.plusSeconds(2)));
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        verify(orderCache).invalidate(10);
+    }
+
+    @Test
+    void relay_ShouldMarkTheEventFailedAfterMaxAttempts() {
+        // Given
+        OutboxEvent event = event(1, 10);
+        event.setAttempts(2);
+        when(outboxEventRepository.findDueForUpdate(eq(OutboxEventStatus.PENDING), any(), any()))
+                .thenReturn(List.of(event));
+        when(orderClient.updateStatus(10)).thenReturn(Mono.error(new RestClientException("Service unavailable")));
+        when(outboxEventRepository.findById(1)).thenReturn(Optional.of(event));
+
+        // When
+        outboxRelayService.relay();
+
+        // Then
+        assertEquals(3, event.getAttempts());
+        assertEquals(OutboxEventStatus.FAILED, event.getEventStatus());
+    }
+
+    @Test
+    void relay_ShouldDoNothingWithoutPendingEvents() {
+        // Given
+        when(outboxEventRepository.findDueForUpdate(eq(OutboxEventStatus.PENDING), any(), any())).thenReturn(List.of());
+
+        // When
+        int delivered = outboxRelayService.relay();
+
+        // Then
+        assertEquals(0, delivered);
+        verifyNoInteractions(orderClient);
+    }
+}
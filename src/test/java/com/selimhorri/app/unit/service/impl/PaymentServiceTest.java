@@ -5,30 +5,55 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.cache.OrderCache;
+import com.selimhorri.app.config.payment.PaymentProperties;
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.OutboxEventStatus;
+import com.selimhorri.app.domain.OutboxEventType;
 import com.selimhorri.app.domain.Payment;
 import com.selimhorri.app.domain.PaymentStatus;
 import com.selimhorri.app.domain.enums.OrderStatus;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.response.PaymentBatchItemResponse;
+import com.selimhorri.app.dto.response.PaymentStatusUpdateResponse;
+import com.selimhorri.app.dto.response.collection.DtoCursorPageResponse;
+import com.selimhorri.app.exception.wrapper.PaymentConflictException;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 import com.selimhorri.app.exception.wrapper.PaymentServiceException;
+import com.selimhorri.app.helper.PaymentCursorHelper;
+import com.selimhorri.app.helper.PaymentMappingHelper;
+import com.selimhorri.app.repository.OutboxEventRepository;
 import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.service.OrderEnrichmentService;
 import com.selimhorri.app.service.impl.PaymentServiceImpl;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 @ExtendWith(MockitoExtension.class)
 class PaymentServiceImplTest {
 
@@ -36,9 +61,23 @@ class PaymentServiceImplTest {
     private PaymentRepository paymentRepository;
 
     @Mock
-    private RestTemplate restTemplate;
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private TransactionOperations transactionOperations;
+
+    @Mock
+    private TransactionOperations readOnlyTransactionOperations;
+
+    @Mock
+    private OrderCache orderCache;
+
+    @Mock
+    private OrderEnrichmentService orderEnrichmentService;
+
+    @Spy
+    private PaymentProperties paymentProperties = new PaymentProperties();
 
-    @InjectMocks
     private PaymentServiceImpl paymentService;
 
     private Payment payment;
@@ -67,6 +106,12 @@ class PaymentServiceImplTest {
                 .paymentStatus(PaymentStatus.NOT_STARTED)
                 .orderDto(orderDto)
                 .build();
+        lenient().when(transactionOperations.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(readOnlyTransactionOperations.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        paymentService = new PaymentServiceImpl(paymentRepository, orderCache, orderEnrichmentService, paymentProperties,
+                outboxEventRepository, transactionOperations, readOnlyTransactionOperations, null);
     }
 
     @Test
@@ -77,11 +122,15 @@ class PaymentServiceImplTest {
                 .orderStatus("IN_PAYMENT")
                 .build();
 
-        List<Payment> payments = Arrays.asList(payment);
+        List<PaymentDto> payments = List.of(PaymentMappingHelper.map(payment));
         
-        when(paymentRepository.findAll()).thenReturn(payments);
-        when(restTemplate.getForObject(anyString(), eq(OrderDto.class)))
-                .thenReturn(inPaymentOrder);
+        when(paymentRepository.findCandidates(paymentProperties.getCandidateStatuses())).thenReturn(payments);
+        when(orderEnrichmentService.enrichInPayment(anyList()))
+                .thenAnswer(invocation -> {
+                    List<PaymentDto> paymentDtos = invocation.getArgument(0);
+                    paymentDtos.forEach(p -> p.setOrderDto(inPaymentOrder));
+                    return paymentDtos;
+                });
 
         // When
         List<PaymentDto> result = paymentService.findAll();
@@ -90,23 +139,18 @@ class PaymentServiceImplTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("IN_PAYMENT", result.get(0).getOrderDto().getOrderStatus());
-        verify(paymentRepository).findAll();
-        verify(restTemplate).getForObject(contains("/1"), eq(OrderDto.class));
+        verify(paymentRepository).findCandidates(paymentProperties.getCandidateStatuses());
+        verify(paymentRepository, never()).findAll();
+        verify(orderEnrichmentService).enrichInPayment(argThat(p -> p.size() == 1));
     }
 
     @Test
     void findAll_ShouldFilterOutPaymentsWithoutInPaymentStatus() {
         // Given
-        OrderDto orderedOrder = OrderDto.builder()
-                .orderId(1)
-                .orderStatus("ORDERED")
-                .build();
-
-        List<Payment> payments = Arrays.asList(payment);
+        List<PaymentDto> payments = List.of(PaymentMappingHelper.map(payment));
         
-        when(paymentRepository.findAll()).thenReturn(payments);
-        when(restTemplate.getForObject(anyString(), eq(OrderDto.class)))
-                .thenReturn(orderedOrder);
+        when(paymentRepository.findCandidates(paymentProperties.getCandidateStatuses())).thenReturn(payments);
+        when(orderEnrichmentService.enrichInPayment(anyList())).thenReturn(List.of());
 
         // When
         List<PaymentDto> result = paymentService.findAll();
@@ -114,33 +158,121 @@ class PaymentServiceImplTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(paymentRepository).findAll();
+        verify(paymentRepository).findCandidates(paymentProperties.getCandidateStatuses());
+        verify(paymentRepository, never()).findAll();
+        verify(orderCache, never()).get(anyInt());
     }
 
     @Test
-    void findAll_ShouldHandleRestTemplateException() {
+    void findAll_ShouldNotQueryWhenNoCandidateStatusIsConfigured() {
         // Given
-        List<Payment> payments = Arrays.asList(payment);
-        
-        when(paymentRepository.findAll()).thenReturn(payments);
-        when(restTemplate.getForObject(anyString(), eq(OrderDto.class)))
-                .thenThrow(new RestClientException("Service unavailable"));
+        paymentProperties.setCandidateStatuses(Set.of());
 
         // When
         List<PaymentDto> result = paymentService.findAll();
 
         // Then
-        assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(paymentRepository).findAll();
+        verifyNoInteractions(paymentRepository, orderEnrichmentService);
+    }
+
+    @Test
+    void findAllPage_ShouldReturnNextCursorWhenThePageIsFull() {
+        // Given
+        Payment second = Payment.builder()
+                .paymentId(2)
+                .orderId(2)
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.IN_PROGRESS)
+                .build();
+        when(paymentRepository.findCandidatesAfter(
+                eq(paymentProperties.getCandidateStatuses()), eq(0), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(PaymentMappingHelper.map(payment), PaymentMappingHelper.map(second)));
+        when(orderEnrichmentService.enrichInPayment(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        DtoCursorPageResponse<PaymentDto> result = paymentService.findAll(null, 2);
+
+        // Then
+        assertEquals(2, result.getCollection().size());
+        assertEquals(PaymentCursorHelper.encode(2), result.getNext());
+    }
+
+    @Test
+    void findAllPage_ShouldSeekPastTheCursorAndEndOnAShortPage() {
+        // Given
+        when(paymentRepository.findCandidatesAfter(
+                eq(paymentProperties.getCandidateStatuses()), eq(7), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(PaymentMappingHelper.map(payment)));
+        when(orderEnrichmentService.enrichInPayment(anyList())).thenReturn(List.of());
+
+        // When
+        DtoCursorPageResponse<PaymentDto> result = paymentService.findAll(PaymentCursorHelper.encode(7), 2);
+
+        // Then
+        assertTrue(result.getCollection().isEmpty());
+        assertNull(result.getNext());
+    }
+
+    @Test
+    void findAllPage_ShouldRejectLimitOutOfRange() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> paymentService.findAll(null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentService.findAll(null, paymentProperties.getMaxPageLimit() + 1));
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    void findAllPage_ShouldRejectInvalidCursor() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> paymentService.findAll("not-a-cursor", 10)
+        );
+
+        assertEquals("Invalid cursor", exception.getMessage());
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    void streamAll_ShouldReadCandidatesInKeysetBatches() {
+        // Given
+        paymentProperties.setStreamBatchSize(1);
+        Payment second = Payment.builder()
+                .paymentId(2)
+                .orderId(2)
+                .isPayed(false)
+                .paymentStatus(PaymentStatus.IN_PROGRESS)
+                .build();
+        when(paymentRepository.findCandidatesAfter(any(), eq(0), eq(PageRequest.of(0, 1))))
+                .thenReturn(List.of(PaymentMappingHelper.map(payment)));
+        when(paymentRepository.findCandidatesAfter(any(), eq(1), eq(PageRequest.of(0, 1))))
+                .thenReturn(List.of(PaymentMappingHelper.map(second)));
+        when(paymentRepository.findCandidatesAfter(any(), eq(2), eq(PageRequest.of(0, 1))))
+                .thenReturn(List.of());
+        doAnswer(invocation -> {
+            List<PaymentDto> batch = invocation.getArgument(0);
+            Consumer<PaymentDto> consumer = invocation.getArgument(1);
+            batch.forEach(consumer);
+            return null;
+        }).when(orderEnrichmentService).enrichInPayment(anyList(), any());
+        List<Integer> streamed = new ArrayList<>();
+
+        // When
+        paymentService.streamAll(p -> streamed.add(p.getPaymentId()));
+
+        // Then
+        assertEquals(List.of(1, 2), streamed);
+        verify(orderEnrichmentService, times(2)).enrichInPayment(anyList(), any());
+        verify(paymentRepository, never()).findAll();
     }
 
     @Test
     void findById_ShouldReturnPaymentWithOrderData() {
         // Given
-        when(paymentRepository.findById(1)).thenReturn(Optional.of(payment));
-        when(restTemplate.getForObject(anyString(), eq(OrderDto.class)))
-                .thenReturn(orderDto);
+        when(paymentRepository.findDtoById(1)).thenReturn(Optional.of(PaymentMappingHelper.map(payment)));
+        when(orderCache.getOrStale(1)).thenReturn(Optional.of(orderDto));
 
         // When
         PaymentDto result = paymentService.findById(1);
@@ -150,14 +282,16 @@ class PaymentServiceImplTest {
         assertEquals(1, result.getPaymentId());
         assertNotNull(result.getOrderDto());
         assertEquals(1, result.getOrderDto().getOrderId());
-        verify(paymentRepository).findById(1);
-        verify(restTemplate).getForObject(contains("/1"), eq(OrderDto.class));
+        verify(paymentRepository).findDtoById(1);
+        verify(orderCache).getOrStale(1);
+        verify(readOnlyTransactionOperations).execute(any());
+        verifyNoInteractions(transactionOperations);
     }
 
     @Test
     void findById_ShouldThrowExceptionWhenPaymentNotFound() {
         // Given
-        when(paymentRepository.findById(1)).thenReturn(Optional.empty());
+        when(paymentRepository.findDtoById(1)).thenReturn(Optional.empty());
 
         // When & Then
         PaymentServiceException exception = assertThrows(
@@ -166,15 +300,15 @@ class PaymentServiceImplTest {
         );
         
         assertTrue(exception.getMessage().contains("Payment with id: 1 not found"));
-        verify(paymentRepository).findById(1);
-        verify(restTemplate, never()).getForObject(anyString(), eq(OrderDto.class));
+        verify(paymentRepository).findDtoById(1);
+        verify(orderCache, never()).getOrStale(anyInt());
     }
 
     @Test
     void findById_ShouldThrowExceptionWhenOrderServiceFails() {
         // Given
-        when(paymentRepository.findById(1)).thenReturn(Optional.of(payment));
-        when(restTemplate.getForObject(anyString(), eq(OrderDto.class)))
+        when(paymentRepository.findDtoById(1)).thenReturn(Optional.of(PaymentMappingHelper.map(payment)));
+        when(orderCache.getOrStale(1))
                 .thenThrow(new RestClientException("Service unavailable"));
 
         // When & Then
@@ -184,11 +318,71 @@ class PaymentServiceImplTest {
         );
         
         assertEquals("Could not fetch order information for payment", exception.getMessage());
-        verify(paymentRepository).findById(1);
+        verify(paymentRepository).findDtoById(1);
+    }
+
+    private PaymentServiceImpl asyncPaymentService() {
+        // Completions run on the thread completing the lookup
+        return new PaymentServiceImpl(paymentRepository, orderCache, orderEnrichmentService, paymentProperties,
+                outboxEventRepository, transactionOperations, readOnlyTransactionOperations, Schedulers.immediate());
     }
 
     @Test
-    void save_ShouldSavePaymentAndUpdateOrderStatus() {
+    void findByIdAsync_ShouldCompleteWithTheOrderOnceItIsLookedUp() throws Exception {
+        // Given
+        when(paymentRepository.findDtoById(1)).thenReturn(Optional.of(PaymentMappingHelper.map(payment)));
+        when(orderCache.findOrStale(1)).thenReturn(Mono.just(orderDto));
+
+        // When
+        CompletableFuture<PaymentDto> result = asyncPaymentService().findByIdAsync(1);
+
+        // Then
+        assertEquals(orderDto, result.get().getOrderDto());
+        verify(orderCache, never()).getOrStale(anyInt());
+    }
+
+    @Test
+    void findByIdAsync_ShouldFailTheFutureWhenTheOrderIsUnknown() {
+        // Given
+        when(paymentRepository.findDtoById(1)).thenReturn(Optional.of(PaymentMappingHelper.map(payment)));
+        when(orderCache.findOrStale(1)).thenReturn(Mono.empty());
+
+        // When
+        CompletableFuture<PaymentDto> result = asyncPaymentService().findByIdAsync(1);
+
+        // Then
+        ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+        assertTrue(exception.getCause() instanceof PaymentServiceException);
+        assertEquals("Could not fetch order information for payment", exception.getCause().getMessage());
+    }
+
+    @Test
+    void findByIdAsync_ShouldThrowRightAwayWhenPaymentNotFound() {
+        // Given
+        when(paymentRepository.findDtoById(1)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(PaymentServiceException.class, () -> asyncPaymentService().findByIdAsync(1));
+        verify(orderCache, never()).findOrStale(anyInt());
+    }
+
+    @Test
+    void findAllAsync_ShouldEnrichTheCandidatesWithoutBlocking() throws Exception {
+        // Given
+        List<PaymentDto> candidates = List.of(PaymentMappingHelper.map(payment));
+        when(paymentRepository.findCandidates(paymentProperties.getCandidateStatuses())).thenReturn(candidates);
+        when(orderEnrichmentService.enrichInPaymentAsync(candidates)).thenReturn(Mono.just(candidates));
+
+        // When
+        CompletableFuture<List<PaymentDto>> result = asyncPaymentService().findAllAsync();
+
+        // Then
+        assertEquals(candidates, result.get());
+        verify(orderEnrichmentService, never()).enrichInPayment(anyList());
+    }
+
+    @Test
+    void save_ShouldSavePaymentAndRecordOrderStatusPatchInOutbox() {
         // Given
         Payment savedPayment = new Payment();
         savedPayment.setPaymentId(1);
@@ -196,11 +390,8 @@ class PaymentServiceImplTest {
         savedPayment.setPaymentStatus(PaymentStatus.NOT_STARTED);
         savedPayment.setOrderId(1);
 
-        when(restTemplate.getForObject(anyString(), eq(OrderDto.class)))
-                .thenReturn(orderDto);
+        when(orderCache.getFresh(1)).thenReturn(Optional.of(orderDto));
         when(paymentRepository.save(any(Payment.class))).thenReturn(savedPayment);
-        when(restTemplate.patchForObject(anyString(), isNull(), eq(Void.class)))
-                .thenReturn(null);
 
         // When
         PaymentDto result = paymentService.save(paymentDto);
@@ -208,9 +399,12 @@ class PaymentServiceImplTest {
         // Then
         assertNotNull(result);
         assertEquals(1, result.getPaymentId());
-        verify(restTemplate).getForObject(contains("/1"), eq(OrderDto.class));
+        verify(orderCache).getFresh(1);
         verify(paymentRepository).save(any(Payment.class));
-        verify(restTemplate).patchForObject(contains("/1/status"), isNull(), eq(Void.class));
+        verify(outboxEventRepository).save(argThat((OutboxEvent event) -> event.getOrderId() == 1
+                && event.getEventType() == OutboxEventType.ORDER_STATUS_PATCH
+                && event.getEventStatus() == OutboxEventStatus.PENDING));
+        verify(orderCache, never()).invalidate(anyInt());
     }
 
     @Test
@@ -236,14 +430,7 @@ class PaymentServiceImplTest {
     @Test
     void save_ShouldThrowExceptionWhenOrderNotFound() {
         // Given
-        when(restTemplate.getForObject(anyString(), eq(OrderDto.class)))
-                .thenThrow(HttpClientErrorException.NotFound.create(
-                        org.springframework.http.HttpStatus.NOT_FOUND,
-                        "Not Found",
-                        null,
-                        null,
-                        null
-                ));
+        when(orderCache.getFresh(1)).thenReturn(Optional.empty());
 
         // When & Then
         PaymentServiceException exception = assertThrows(
@@ -263,8 +450,7 @@ class PaymentServiceImplTest {
                 .orderStatus(OrderStatus.IN_PAYMENT.name())
                 .build();
 
-        when(restTemplate.getForObject(anyString(), eq(OrderDto.class)))
-                .thenReturn(inPaymentOrder);
+        when(orderCache.getFresh(1)).thenReturn(Optional.of(inPaymentOrder));
 
         // When & Then
         IllegalArgumentException exception = assertThrows(
@@ -277,39 +463,160 @@ class PaymentServiceImplTest {
     }
 
     @Test
-    void save_ShouldThrowExceptionWhenOrderStatusUpdateFails() {
+    void save_ShouldThrowExceptionWhenOrderStatusPatchIsStillPending() {
         // Given
-        Payment savedPayment = new Payment();
-        savedPayment.setPaymentId(1);
-        savedPayment.setIsPayed(false);
-        savedPayment.setPaymentStatus(PaymentStatus.NOT_STARTED);
-        savedPayment.setOrderId(1);
-
-        when(restTemplate.getForObject(anyString(), eq(OrderDto.class)))
-                .thenReturn(orderDto);
-        when(paymentRepository.save(any(Payment.class))).thenReturn(savedPayment);
-        when(restTemplate.patchForObject(anyString(), isNull(), eq(Void.class)))
-                .thenThrow(new RestClientException("Update failed"));
+        when(orderCache.getFresh(1)).thenReturn(Optional.of(orderDto));
+        when(outboxEventRepository.existsByOrderIdAndEventTypeAndEventStatus(
+                1, OutboxEventType.ORDER_STATUS_PATCH, OutboxEventStatus.PENDING)).thenReturn(true);
 
         // When & Then
-        PaymentServiceException exception = assertThrows(
-                PaymentServiceException.class,
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
                 () -> paymentService.save(paymentDto)
         );
-        
-        assertTrue(exception.getMessage().contains("Payment saved but failed to update order status"));
-        verify(paymentRepository).save(any(Payment.class));
+
+        assertTrue(exception.getMessage().contains("already in a payment process"));
+        verify(paymentRepository, never()).save(any());
+        verify(outboxEventRepository, never()).save(any());
+    }
+
+    private static PaymentDto paymentFor(Integer orderId) {
+        return PaymentDto.builder()
+                .orderDto(orderId == null ? null : OrderDto.builder().orderId(orderId).build())
+                .build();
+    }
+
+    private static OrderDto orderWithStatus(int orderId, OrderStatus orderStatus) {
+        return OrderDto.builder()
+                .orderId(orderId)
+                .orderStatus(orderStatus.name())
+                .build();
     }
 
     @Test
-    void updateStatus_ShouldUpdateFromNotStartedToInProgress() {
+    void saveAll_ShouldInsertValidItemsInOneBatchAndReportEachItem() {
         // Given
-        Payment updatedPayment = new Payment();
-        updatedPayment.setPaymentId(1);
-        updatedPayment.setPaymentStatus(PaymentStatus.IN_PROGRESS);
+        List<PaymentDto> batch = List.of(
+                paymentFor(1), paymentFor(null), paymentFor(1), paymentFor(2),
+                paymentFor(3), paymentFor(4), paymentFor(5), paymentFor(6));
+        when(orderCache.findAllFresh(anyCollection(), anyInt())).thenReturn(Mono.just(Map.of(
+                1, Optional.of(orderWithStatus(1, OrderStatus.ORDERED)),
+                2, Optional.empty(),
+                3, Optional.of(orderWithStatus(3, OrderStatus.IN_PAYMENT)),
+                4, Optional.of(orderWithStatus(4, OrderStatus.ORDERED)),
+                6, Optional.of(orderWithStatus(6, OrderStatus.ORDERED)))));
+        when(outboxEventRepository.findOrderIdsWithEvent(
+                anyCollection(), eq(OutboxEventType.ORDER_STATUS_PATCH), eq(OutboxEventStatus.PENDING)))
+                .thenReturn(Set.of(4));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionOperations).executeWithoutResult(any());
+        when(paymentRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Payment> payments = invocation.getArgument(0);
+            for (int i = 0; i < payments.size(); i++) {
+                payments.get(i).setPaymentId(100 + i);
+            }
+            return payments;
+        });
 
-        when(paymentRepository.findById(1)).thenReturn(Optional.of(payment));
-        when(paymentRepository.save(any(Payment.class))).thenReturn(updatedPayment);
+        // When
+        List<PaymentBatchItemResponse> result = paymentService.saveAll(batch);
+
+        // Then
+        assertEquals(8, result.size());
+        assertEquals(PaymentBatchItemResponse.Outcome.CREATED, result.get(0).getOutcome());
+        assertEquals(100, result.get(0).getPayment().getPaymentId());
+        assertEquals("Order ID must not be null", result.get(1).getMessage());
+        assertTrue(result.get(2).getMessage().contains("Duplicate order ID 1"));
+        assertTrue(result.get(3).getMessage().contains("Order with ID 2 not found"));
+        assertTrue(result.get(4).getMessage().contains("Cannot start the payment"));
+        assertTrue(result.get(5).getMessage().contains("Cannot start the payment"));
+        assertEquals("Could not fetch order information", result.get(6).getMessage());
+        assertEquals(PaymentBatchItemResponse.Outcome.CREATED, result.get(7).getOutcome());
+        assertEquals(101, result.get(7).getPayment().getPaymentId());
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(i, result.get(i).getIndex());
+        }
+        verify(paymentRepository, times(1)).insertAll(argThat(payments -> payments.size() == 2));
+        verify(outboxEventRepository, times(1)).insertAll(argThat(events -> events.size() == 2));
+        verify(paymentRepository, never()).save(any());
+    }
+
+    @Test
+    void saveAll_ShouldNotOpenATransactionWhenNoItemIsValid() {
+        // Given
+        when(orderCache.findAllFresh(anyCollection(), anyInt())).thenReturn(Mono.just(Map.of(1, Optional.empty())));
+
+        // When
+        List<PaymentBatchItemResponse> result = paymentService.saveAll(List.of(paymentFor(1)));
+
+        // Then
+        assertEquals(PaymentBatchItemResponse.Outcome.REJECTED, result.get(0).getOutcome());
+        verifyNoInteractions(transactionOperations);
+        verify(paymentRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void saveAll_ShouldRejectBatchesAboveTheMaximumSize() {
+        // Given
+        paymentProperties.setBatchMaxSize(1);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentService.saveAll(List.of(paymentFor(1), paymentFor(2))));
+        verifyNoInteractions(orderCache);
+    }
+
+    @Test
+    void findAllByOrderIds_ShouldRunOneQueryForTheDistinctOrderIds() {
+        // Given
+        when(paymentRepository.findAllByOrderIdIn(anyCollection())).thenReturn(List.of(PaymentMappingHelper.map(payment)));
+
+        // When
+        List<PaymentDto> result = paymentService.findAllByOrderIds(Arrays.asList(1, 2, 1, null), false);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getOrderDto().getOrderId());
+        verify(paymentRepository).findAllByOrderIdIn(Set.of(1, 2));
+        verifyNoInteractions(orderCache);
+    }
+
+    @Test
+    void findAllByOrderIds_ShouldEnrichWithKnownOrdersAndKeepBareIdsOtherwise() {
+        // Given
+        Payment otherPayment = paymentWithStatus(2, PaymentStatus.IN_PROGRESS);
+        otherPayment.setOrderId(2);
+        when(paymentRepository.findAllByOrderIdIn(anyCollection())).thenReturn(List.of(
+                PaymentMappingHelper.map(payment), PaymentMappingHelper.map(otherPayment)));
+        when(orderCache.findAllOrStale(anyCollection(), anyInt())).thenReturn(Mono.just(Map.of(1, Optional.of(orderDto))));
+
+        // When
+        List<PaymentDto> result = paymentService.findAllByOrderIds(List.of(1, 2), true);
+
+        // Then
+        assertEquals(orderDto, result.get(0).getOrderDto());
+        assertEquals(2, result.get(1).getOrderDto().getOrderId());
+        assertNull(result.get(1).getOrderDto().getOrderStatus());
+    }
+
+    @Test
+    void findAllByOrderIds_ShouldRejectTooManyOrderIds() {
+        // Given
+        paymentProperties.setBatchMaxSize(1);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> paymentService.findAllByOrderIds(List.of(1, 2), false));
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    void updateStatus_ShouldUpdateFromNotStartedToInProgress() {
+        // Given
+        Payment advanced = paymentWithStatus(1, PaymentStatus.IN_PROGRESS);
+        when(paymentRepository.advanceStatus(eq(1), any())).thenReturn(1);
+        when(paymentRepository.findById(1)).thenReturn(Optional.of(advanced));
 
         // When
         PaymentDto result = paymentService.updateStatus(1);
@@ -317,20 +624,17 @@ class PaymentServiceImplTest {
         // Then
         assertNotNull(result);
         assertEquals(PaymentStatus.IN_PROGRESS, result.getPaymentStatus());
-        verify(paymentRepository).findById(1);
-        verify(paymentRepository).save(any(Payment.class));
+        InOrder inOrder = inOrder(paymentRepository);
+        inOrder.verify(paymentRepository).advanceStatus(eq(1), any());
+        inOrder.verify(paymentRepository).findById(1);
+        verify(paymentRepository, never()).save(any());
     }
 
     @Test
     void updateStatus_ShouldUpdateFromInProgressToCompleted() {
         // Given
-        payment.setPaymentStatus(PaymentStatus.IN_PROGRESS);
-        Payment updatedPayment = new Payment();
-        updatedPayment.setPaymentId(1);
-        updatedPayment.setPaymentStatus(PaymentStatus.COMPLETED);
-
-        when(paymentRepository.findById(1)).thenReturn(Optional.of(payment));
-        when(paymentRepository.save(any(Payment.class))).thenReturn(updatedPayment);
+        when(paymentRepository.advanceStatus(eq(1), any())).thenReturn(1);
+        when(paymentRepository.findById(1)).thenReturn(Optional.of(paymentWithStatus(1, PaymentStatus.COMPLETED)));
 
         // When
         PaymentDto result = paymentService.updateStatus(1);
@@ -338,13 +642,13 @@ class PaymentServiceImplTest {
         // Then
         assertNotNull(result);
         assertEquals(PaymentStatus.COMPLETED, result.getPaymentStatus());
-        verify(paymentRepository).save(any(Payment.class));
     }
 
     @Test
     void updateStatus_ShouldThrowExceptionWhenPaymentCompleted() {
         // Given
         payment.setPaymentStatus(PaymentStatus.COMPLETED);
+        when(paymentRepository.advanceStatus(eq(1), any())).thenReturn(0);
         when(paymentRepository.findById(1)).thenReturn(Optional.of(payment));
 
         // When & Then
@@ -354,13 +658,14 @@ class PaymentServiceImplTest {
         );
         
         assertTrue(exception.getMessage().contains("Payment is already COMPLETED"));
-        verify(paymentRepository, never()).save(any());
+        verify(paymentRepository, never()).updateStatus(anyCollection(), any(), any(), any());
     }
 
     @Test
     void updateStatus_ShouldThrowExceptionWhenPaymentCanceled() {
         // Given
         payment.setPaymentStatus(PaymentStatus.CANCELED);
+        when(paymentRepository.advanceStatus(eq(1), any())).thenReturn(0);
         when(paymentRepository.findById(1)).thenReturn(Optional.of(payment));
 
         // When & Then
@@ -370,12 +675,13 @@ class PaymentServiceImplTest {
         );
         
         assertTrue(exception.getMessage().contains("Payment is CANCELED"));
-        verify(paymentRepository, never()).save(any());
+        verify(paymentRepository, never()).updateStatus(anyCollection(), any(), any(), any());
     }
 
     @Test
     void updateStatus_ShouldThrowExceptionWhenPaymentNotFound() {
         // Given
+        when(paymentRepository.advanceStatus(eq(1), any())).thenReturn(0);
         when(paymentRepository.findById(1)).thenReturn(Optional.empty());
 
         // When & Then
@@ -388,18 +694,92 @@ class PaymentServiceImplTest {
         verify(paymentRepository, never()).save(any());
     }
 
+    private static Payment paymentWithStatus(int paymentId, PaymentStatus paymentStatus) {
+        Payment payment = new Payment();
+        payment.setPaymentId(paymentId);
+        payment.setPaymentStatus(paymentStatus);
+        return payment;
+    }
+
+    @Test
+    void updateStatusBulk_ShouldAdvanceEachSourceStatusWithOneUpdate() {
+        // Given
+        when(paymentRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(
+                paymentWithStatus(1, PaymentStatus.NOT_STARTED),
+                paymentWithStatus(2, PaymentStatus.IN_PROGRESS),
+                paymentWithStatus(3, PaymentStatus.COMPLETED),
+                paymentWithStatus(4, PaymentStatus.NOT_STARTED)));
+
+        // When
+        List<PaymentStatusUpdateResponse> result = paymentService.updateStatus(List.of(1, 2, 3, 4, 5, 1));
+
+        // Then
+        assertEquals(5, result.size());
+        assertEquals(PaymentStatusUpdateResponse.updated(1, PaymentStatus.IN_PROGRESS), result.get(0));
+        assertEquals(PaymentStatusUpdateResponse.updated(2, PaymentStatus.COMPLETED), result.get(1));
+        assertEquals(PaymentStatusUpdateResponse.Outcome.REJECTED, result.get(2).getOutcome());
+        assertEquals("Payment is already COMPLETED and cannot be updated further", result.get(2).getMessage());
+        assertEquals(PaymentStatusUpdateResponse.updated(4, PaymentStatus.IN_PROGRESS), result.get(3));
+        assertEquals(PaymentStatusUpdateResponse.Outcome.NOT_FOUND, result.get(4).getOutcome());
+        verify(paymentRepository).updateStatus(eq(List.of(1, 4)), eq(PaymentStatus.NOT_STARTED),
+                eq(PaymentStatus.IN_PROGRESS), any());
+        verify(paymentRepository).updateStatus(eq(List.of(2)), eq(PaymentStatus.IN_PROGRESS),
+                eq(PaymentStatus.COMPLETED), any());
+        verify(paymentRepository, never()).save(any());
+    }
+
+    @Test
+    void cancelBulk_ShouldCancelOpenPaymentsAndRejectTheOthers() {
+        // Given
+        when(paymentRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(
+                paymentWithStatus(1, PaymentStatus.IN_PROGRESS),
+                paymentWithStatus(2, PaymentStatus.CANCELED),
+                paymentWithStatus(3, PaymentStatus.COMPLETED)));
+
+        // When
+        List<PaymentStatusUpdateResponse> result = paymentService.cancel(List.of(1, 2, 3));
+
+        // Then
+        assertEquals(PaymentStatusUpdateResponse.updated(1, PaymentStatus.CANCELED), result.get(0));
+        assertEquals("Payment is already canceled", result.get(1).getMessage());
+        assertEquals("Cannot cancel a completed payment", result.get(2).getMessage());
+        verify(paymentRepository, times(1)).updateStatus(eq(List.of(1)), eq(PaymentStatus.IN_PROGRESS),
+                eq(PaymentStatus.CANCELED), any());
+    }
+
+    @Test
+    void updateStatusBulk_ShouldRejectBatchesAboveTheMaximumSize() {
+        // Given
+        paymentProperties.setBatchMaxSize(1);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> paymentService.updateStatus(List.of(1, 2)));
+        verify(paymentRepository, never()).findAllByIdForUpdate(anyCollection());
+    }
+
     @Test
     void deleteById_ShouldCancelPayment() {
         // Given
         when(paymentRepository.findById(1)).thenReturn(Optional.of(payment));
-        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        when(paymentRepository.updateStatus(eq(List.of(1)), eq(PaymentStatus.NOT_STARTED),
+                eq(PaymentStatus.CANCELED), any())).thenReturn(1);
 
         // When
         paymentService.deleteById(1);
 
         // Then
         verify(paymentRepository).findById(1);
-        verify(paymentRepository).save(argThat(p -> p.getPaymentStatus() == PaymentStatus.CANCELED));
+        verify(paymentRepository, never()).save(any());
+    }
+
+    @Test
+    void deleteById_ShouldThrowConflictWhenStatusChangedConcurrently() {
+        // Given
+        when(paymentRepository.findById(1)).thenReturn(Optional.of(payment));
+        when(paymentRepository.updateStatus(anyCollection(), any(), any(), any())).thenReturn(0);
+
+        // When & Then
+        assertThrows(PaymentConflictException.class, () -> paymentService.deleteById(1));
     }
 
     @Test
@@ -0,0 +1,54 @@
+package com.selimhorri.app.unit.thread;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.thread.VirtualThreads;
+
+class VirtualThreadsTest {
+
+    private static final boolean JAVA_21 = Runtime.version().feature() >= 21;
+
+    @Test
+    void isSupported_ShouldMatchTheRunningJava() {
+        // When
+        boolean supported = VirtualThreads.isSupported();
+
+        // Then
+        assertEquals(JAVA_21, supported);
+        assertEquals(supported, VirtualThreads.unsupportedReason() == null);
+    }
+
+    @Test
+    void newThreadPerTaskExecutor_ShouldFailBeforeJava21() {
+        // Given
+        assumeFalse(JAVA_21);
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> VirtualThreads.newThreadPerTaskExecutor("test-"));
+    }
+
+    @Test
+    void newThreadPerTaskExecutor_ShouldRunEachTaskOnANamedVirtualThread() throws Exception {
+        // Given
+        assumeTrue(JAVA_21);
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("test-");
+
+        // When
+        Thread thread;
+        try {
+            thread = executor.submit(Thread::currentThread).get();
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+        assertTrue(thread.getName().startsWith("test-"));
+    }
+}